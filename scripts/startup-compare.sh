@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+#
+# Startup time and memory of the application in three modes:
+#   jvm     the extracted jar on a plain JVM
+#   cds     the same jar with Spring AOT and the CDS archive from the training run
+#   native  the GraalVM native image (skipped when target/my-spring-boot-app doesn't exist)
+#
+# Build first:
+#   ./mvnw -Pcds -DskipTests package              # target/cds
+#   ./mvnw -Pnative -DskipTests native:compile    # target/my-spring-boot-app, needs GraalVM
+#
+# "Ready" is the first HTTP response from /actuator/health (any status, so security doesn't matter),
+# measured from process launch; RSS is read from /proc at that moment. Each mode is started RUNS times
+# and the median is printed.
+#
+# Environment:
+#   RUNS       starts per mode (5)
+#   PORT       HTTP port (18081)
+#   APP_ARGS   extra application arguments, e.g. a datasource url
+#   EXTRA_CP   extra classpath entries for the JVM modes, e.g. a JDBC driver (":/path/driver.jar")
+#   JAVA       java executable (java)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+APP_ARGS=${APP_ARGS:-}
+EXTRA_CP=${EXTRA_CP:-}
+JAVA=${JAVA:-java}
+MAIN=com.example.my_spring_boot_app.MySpringBootAppApplication
+CDS_DIR=target/cds
+JAR=my-spring-boot-app-0.0.1-SNAPSHOT.jar
+NATIVE=target/my-spring-boot-app
+
+now_ms() {
+	echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Starts the command in the background, waits for the first response and prints "<ms> <rss kB>"
+measure() {
+	local start pid ms rss
+	start=$(now_ms)
+	"$@" --server.port="$PORT" $APP_ARGS >/dev/null 2>&1 &
+	pid=$!
+	until curl -s -o /dev/null "http://127.0.0.1:$PORT/actuator/health"; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "failed to start: $*" >&2
+			return 1
+		fi
+		sleep 0.02
+	done
+	ms=$(( $(now_ms) - start ))
+	rss=$(awk '/^VmRSS/ { print $2 }' "/proc/$pid/status")
+	kill "$pid"
+	wait "$pid" 2>/dev/null || true
+	echo "$ms $rss"
+}
+
+median() {
+	sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+run_mode() {
+	local mode=$1 times=() rsss=() result
+	shift
+	for _ in $(seq "$RUNS"); do
+		result=$(measure "$@")
+		times+=("${result% *}")
+		rsss+=("${result#* }")
+	done
+	printf '%-8s %10s %10s\n' "$mode" \
+		"$(printf '%s\n' "${times[@]}" | median)" \
+		"$(( $(printf '%s\n' "${rsss[@]}" | median) / 1024 ))"
+}
+
+if [[ ! -f $CDS_DIR/$JAR ]]; then
+	echo "$CDS_DIR/$JAR is missing, run ./mvnw -Pcds -DskipTests package first" >&2
+	exit 1
+fi
+
+printf '%-8s %10s %10s\n' mode "ready ms" "rss MB"
+(cd "$CDS_DIR" && run_mode jvm "$JAVA" -cp "$JAR$EXTRA_CP" "$MAIN")
+(cd "$CDS_DIR" && run_mode cds "$JAVA" -XX:SharedArchiveFile=application.jsa -Xlog:cds=error -Dspring.aot.enabled=true \
+	-cp "$JAR$EXTRA_CP" "$MAIN")
+if [[ -x $NATIVE ]]; then
+	run_mode native "$NATIVE"
+else
+	printf '%-8s %10s %10s\n' native - -
+fi
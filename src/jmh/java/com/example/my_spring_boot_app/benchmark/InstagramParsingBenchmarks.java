@@ -0,0 +1,68 @@
+package com.example.my_spring_boot_app.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.my_spring_boot_app.config.InstagramProperties;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.service.InstagramService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * InstagramService decoding the canned instagram.com payload. The WebClient's exchange is replaced
+ * by one that answers straight from memory, so this measures the client side only: the resilience
+ * filter, the codec and the mapping into InstagramProfile. The profile caches are switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InstagramParsingBenchmarks {
+
+	private InstagramService instagramService;
+
+	@Setup
+	public void setUp() throws IOException {
+		byte[] payload = new ClassPathResource("instagram/profile.json").getContentAsByteArray();
+		ExchangeFunction canned = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(payload))))
+				.build());
+		InstagramProperties properties = new InstagramProperties();
+		properties.getCache().setEnabled(false);
+		instagramService = new InstagramService(WebClient.builder().exchangeFunction(canned), properties);
+	}
+
+	@TearDown
+	public void close() {
+		instagramService.close();
+	}
+
+	@Benchmark
+	public InstagramProfile parseProfile() {
+		return instagramService.getProfileByUsername("sakshi_raghu_1c_").block();
+	}
+
+	@Benchmark
+	public String rawProfile() {
+		return instagramService.getRawProfileByUsername("sakshi_raghu_1c_").block();
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.my_spring_boot_app.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.my_spring_boot_app.dto.BookCreateDto;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.model.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson (de)serialization of the request and response bodies, with an ObjectMapper configured the
+ * way Spring Boot configures the one behind the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonBenchmarks {
+
+	private ObjectWriter profileWriter;
+	private ObjectReader profileReader;
+	private ObjectWriter studentWriter;
+	private ObjectWriter studentDtoWriter;
+	private ObjectReader studentCreateReader;
+	private ObjectReader bookCreateReader;
+
+	private byte[] profileJson;
+	private InstagramProfile profile;
+	private Student student;
+	private StudentDto studentDto;
+	private byte[] studentCreateJson;
+	private byte[] bookCreateJson;
+
+	@Setup
+	public void setUp() throws IOException {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		profileWriter = objectMapper.writerFor(InstagramProfile.class);
+		profileReader = objectMapper.readerFor(InstagramProfile.class);
+		studentWriter = objectMapper.writerFor(Student.class);
+		studentDtoWriter = objectMapper.writerFor(StudentDto.class);
+		studentCreateReader = objectMapper.readerFor(StudentCreateDto.class);
+		bookCreateReader = objectMapper.readerFor(BookCreateDto.class);
+
+		// Same canned instagram.com answer the tests' stub server sends
+		profileJson = new ClassPathResource("instagram/profile.json").getContentAsByteArray();
+		profile = profileReader.readValue(profileJson);
+
+		student = new Student();
+		student.setId(42L);
+		student.setName("John Doe");
+		student.setEmail("john.doe@example.com");
+		student.setPhone("+1234567890");
+		student.setCourse("Computer Science");
+		student.setVersion(3L);
+		studentDto = StudentDto.from(student);
+		studentCreateJson = """
+				{"name":"John Doe","email":"john.doe@example.com","phone":"+1234567890","course":"Computer Science"}
+				""".getBytes(StandardCharsets.UTF_8);
+		bookCreateJson = """
+				{"title":"The Hobbit","author":"J. R. R. Tolkien"}
+				""".getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public InstagramProfile readInstagramProfile() throws IOException {
+		return profileReader.readValue(profileJson);
+	}
+
+	@Benchmark
+	public byte[] writeInstagramProfile() throws IOException {
+		return profileWriter.writeValueAsBytes(profile);
+	}
+
+	@Benchmark
+	public byte[] writeStudentEntity() throws IOException {
+		return studentWriter.writeValueAsBytes(student);
+	}
+
+	@Benchmark
+	public byte[] writeStudentDto() throws IOException {
+		return studentDtoWriter.writeValueAsBytes(studentDto);
+	}
+
+	@Benchmark
+	public StudentCreateDto readStudentCreateDto() throws IOException {
+		return studentCreateReader.readValue(studentCreateJson);
+	}
+
+	@Benchmark
+	public BookCreateDto readBookCreateDto() throws IOException {
+		return bookCreateReader.readValue(bookCreateJson);
+	}
+}
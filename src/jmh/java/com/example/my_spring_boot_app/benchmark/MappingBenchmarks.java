@@ -0,0 +1,49 @@
+package com.example.my_spring_boot_app.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+
+/**
+ * The DTO/entity mapping StudentController does around every create and update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MappingBenchmarks {
+
+	private StudentCreateDto createDto;
+	private Student saved;
+
+	@Setup
+	public void setUp() {
+		createDto = new StudentCreateDto();
+		createDto.setName("John Doe");
+		createDto.setEmail("john.doe@example.com");
+		createDto.setPhone("+1234567890");
+		createDto.setCourse("Computer Science");
+		saved = createDto.toEntity();
+		saved.setId(42L);
+		saved.setVersion(0L);
+	}
+
+	@Benchmark
+	public Student createDtoToEntity() {
+		return createDto.toEntity();
+	}
+
+	@Benchmark
+	public StudentDto entityToResponseDto() {
+		return StudentDto.from(saved);
+	}
+}
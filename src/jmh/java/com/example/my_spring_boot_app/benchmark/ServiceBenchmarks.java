@@ -0,0 +1,114 @@
+package com.example.my_spring_boot_app.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.BookSearchHit;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.service.BookSearchService;
+import com.example.my_spring_boot_app.service.BookService;
+import com.example.my_spring_boot_app.service.StudentImportService;
+import com.example.my_spring_boot_app.service.StudentService;
+
+/**
+ * BookService, StudentService and book search on the real application context, backed by the
+ * in-memory H2 database of the "test" profile. The entity caches are switched off, so every call
+ * goes through the transaction, the query and the projection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ServiceBenchmarks {
+
+	private static final int STUDENTS = 10_000;
+	private static final int BOOKS = 2_000;
+
+	private ConfigurableApplicationContext context;
+	private StudentService studentService;
+	private BookService bookService;
+	private BookSearchService bookSearchService;
+	private long[] studentIds;
+	private long[] bookIds;
+
+	@Setup(Level.Trial)
+	public void start() throws IOException {
+		context = new SpringApplicationBuilder(MySpringBootAppApplication.class)
+				.profiles("test")
+				.web(WebApplicationType.NONE)
+				.properties("entity-cache.enabled=false", "logging.level.root=WARN", "spring.main.banner-mode=off")
+				.run();
+		studentService = context.getBean(StudentService.class);
+		bookService = context.getBean(BookService.class);
+		bookSearchService = context.getBean(BookSearchService.class);
+
+		context.getBean(StudentImportService.class).importNdjson(new ByteArrayInputStream(IntStream.range(0, STUDENTS)
+				.mapToObj(i -> "{\"name\":\"Student " + i + "\",\"email\":\"s" + i + "@example.com\",\"course\":\"Bench\"}")
+				.collect(Collectors.joining("\n"))
+				.getBytes(StandardCharsets.UTF_8)));
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book();
+			book.setTitle("Volume " + i + " of the Collected Works");
+			book.setAuthor("Author " + (i % 100));
+			bookService.saveBook(book);
+		}
+		studentIds = studentService.getAllStudents().stream().mapToLong(StudentDto::id).toArray();
+		bookIds = bookService.getAllBooks().stream().mapToLong(BookDto::id).toArray();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public StudentDto getStudentById() {
+		return studentService.getStudentById(pick(studentIds));
+	}
+
+	@Benchmark
+	public List<StudentDto> getStudentsPage() {
+		return studentService.getStudentsAfter(pick(studentIds), 20);
+	}
+
+	@Benchmark
+	public void patchStudent() {
+		studentService.patchStudent(pick(studentIds), Map.of("phone", "+1555" + ThreadLocalRandom.current().nextInt(10_000)), null);
+	}
+
+	@Benchmark
+	public BookDto getBookById() {
+		return bookService.getBookById(pick(bookIds));
+	}
+
+	@Benchmark
+	public List<BookSearchHit> searchBooks() {
+		return bookSearchService.search("collected wrks", 20);
+	}
+
+	private static long pick(long[] ids) {
+		return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+	}
+}
@@ -4,7 +4,21 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.http.client.HttpClientAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.scheduling.annotation.EnableAsync;
 
+import com.example.my_spring_boot_app.config.NativeHints;
+
+@EnableAsync
+// The R2DBC repositories live next to the JPA ones; JPA must not try to implement them
+@EnableJpaRepositories(excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeHints.class)
 @SpringBootApplication(exclude = {HttpClientAutoConfiguration.class, RestClientAutoConfiguration.class})
 public class MySpringBootAppApplication {
 
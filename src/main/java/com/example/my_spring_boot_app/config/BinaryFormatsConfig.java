@@ -0,0 +1,74 @@
+package com.example.my_spring_boot_app.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compact binary bodies for service-to-service callers, chosen with the Accept header (and Content-Type for
+ * request bodies): {@code application/x-jackson-smile}, {@code application/cbor} and, for students, books and
+ * Instagram profiles, {@code application/x-protobuf}. JSON stays first in line, so a wildcard Accept, or none
+ * at all, still gets JSON.
+ * <p>
+ * Smile and CBOR use copies of the application's ObjectMapper, so the same modules and settings apply as for
+ * JSON ({@code @JsonInclude}, property names, dates). Spring Boot puts these beans in place of the default
+ * converters of the same type, behind JSON; protobuf goes at the very end of the list. API responses carry
+ * {@code Vary: Accept}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    // Not a bean: Spring Boot would put an unknown converter type ahead of JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufMessageConverter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryByAcceptInterceptor()).addPathPatterns("/api/**");
+    }
+
+    /**
+     * {@code Vary: Accept} on every API response: without it a shared cache could hand a JSON client the CBOR it
+     * stored for someone else. Set before the handler runs, so it's also on the 304s that never write a body
+     * (RFC 9110 wants the Vary a 200 would have had). The ETags stay as they are: they name the rows' versions,
+     * which If-Match needs whichever format the client read them in.
+     */
+    static final class VaryByAcceptInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // Async requests come through here again on the dispatch that writes the response
+            if (!response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.my_spring_boot_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The pre-encoded book catalog behind {@code GET /api/books} (see BookCatalog), bound from {@code book-catalog.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "book-catalog")
+public class BookCatalogProperties {
+
+    // Off: the full list is loaded and serialized per request, as the paged requests are
+    private boolean enabled = true;
+
+    // Also keep a gzipped copy for clients that accept it, once the JSON is at least gzip-min-size bytes
+    private boolean gzip = true;
+    private int gzipMinSize = 1024;
+}
@@ -0,0 +1,24 @@
+package com.example.my_spring_boot_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Book search tuning, bound from {@code book-search.*} in application.properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "book-search")
+public class BookSearchProperties {
+
+    // Share of the query's trigrams a book must contain to match; lower tolerates more typos
+    private double minSimilarity = 0.4;
+
+    // Results returned when the caller doesn't pass ?limit=
+    private int defaultLimit = 20;
+
+    // Upper bound for ?limit=
+    private int maxLimit = 100;
+}
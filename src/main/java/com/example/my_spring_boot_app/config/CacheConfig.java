@@ -0,0 +1,57 @@
+package com.example.my_spring_boot_app.config;
+
+import java.util.List;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read-through caches in front of BookService and StudentService.
+ * <p>
+ * Entries are keyed by id, list caches by their paging arguments. Writes put the saved row and clear
+ * the list caches; the manager is transaction aware, so when a write runs inside a transaction the
+ * cache only changes once it has committed and a rollback never leaves a row in the cache that the
+ * database doesn't have.
+ */
+// Ordered just outside @Transactional, so a cache hit returns before a transaction (and connection) is opened
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@Configuration(proxyBeanMethods = false)
+public class CacheConfig {
+
+    public static final String STUDENTS = "students";
+    public static final String STUDENT_LISTS = "studentLists";
+    public static final String BOOKS = "books";
+    public static final String BOOK_LISTS = "bookLists";
+
+    @Bean
+    public CacheManager cacheManager(EntityCacheProperties properties) {
+        if (!properties.isEnabled()) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager caches = new CaffeineCacheManager();
+        caches.registerCustomCache(STUDENTS, build(properties.getEntities()));
+        caches.registerCustomCache(BOOKS, build(properties.getEntities()));
+        caches.registerCustomCache(STUDENT_LISTS, build(properties.getLists()));
+        caches.registerCustomCache(BOOK_LISTS, build(properties.getLists()));
+        // Fixed set of caches: a typo in a cache name fails instead of silently creating an unbounded one
+        caches.setCacheNames(List.of());
+        return new TransactionAwareCacheManagerProxy(caches);
+    }
+
+    private static Cache<Object, Object> build(EntityCacheProperties.Spec spec) {
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+}
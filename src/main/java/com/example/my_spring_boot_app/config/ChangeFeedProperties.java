@@ -0,0 +1,30 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Student change feed (GET /api/students/changes, see StudentChangeFeed), bound from {@code change-feed.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "change-feed")
+public class ChangeFeedProperties {
+
+    // Most recent changes kept for resuming; a client that is further behind gets a reset event instead
+    private int history = 10_000;
+
+    // Changes waiting to be written to one subscriber (rounded up to a power of two); a subscriber that falls
+    // this far behind is disconnected
+    private int subscriberBuffer = 256;
+
+    // Subscribers beyond this are turned away (503)
+    private int maxSubscribers = 10_000;
+
+    // SSE comment sent on quiet streams, so proxies keep them open and dead clients are noticed
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
@@ -0,0 +1,41 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sizes and lifetimes of the book/student caches, bound from {@code entity-cache.*} in application.properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+
+    // Turn off to send every lookup to the database (e.g. when measuring the database itself)
+    private boolean enabled = true;
+
+    // Single rows by id
+    private final Spec entities = new Spec(10_000, Duration.ofMinutes(30));
+
+    // List endpoints (full list and keyset pages); cleared on every write, so keep these few and short-lived
+    private final Spec lists = new Spec(200, Duration.ofMinutes(1));
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        private long maximumSize;
+
+        // Safety net only: writes on this node update or evict entries immediately
+        private Duration ttl;
+
+        Spec(long maximumSize, Duration ttl) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+        }
+    }
+}
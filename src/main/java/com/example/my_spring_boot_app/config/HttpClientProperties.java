@@ -0,0 +1,43 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Pool sizes and timeouts for {@link com.example.my_spring_boot_app.service.HttpClientSessionManager},
+ * bound from {@code http-client.*} in application.properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    // Connections across all hosts, and towards any single host (route)
+    private int maxTotal = 200;
+    private int maxPerRoute = 50;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Longest silence allowed between two packets of a response
+    private Duration socketTimeout = Duration.ofSeconds(10);
+
+    // How long a request waits for a pooled connection before failing
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    // Pooled connections idle for longer than this are closed by a background thread
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    // Idle connections are checked before reuse after this long; stale ones are replaced instead of failing the request
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    // Connections are never reused past this age, so DNS changes are eventually picked up
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    // Async client: HTTP/2 when the server offers it over TLS (ALPN), HTTP/1.1 otherwise
+    private HttpVersionPolicy versionPolicy = HttpVersionPolicy.NEGOTIATE;
+}
@@ -0,0 +1,57 @@
+package com.example.my_spring_boot_app.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the id sequences past rows that were inserted while the tables still used IDENTITY columns.
+ * Hibernate's schema update creates {@code students_seq}/{@code books_seq} starting at 1, which would
+ * collide with existing ids on a database that predates the switch to pooled sequences.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // the sequences only exist once the schema update has run
+public class IdSequenceSynchronizer {
+
+    private static final String[][] TABLES = {
+        {"students", "students_seq"},
+        {"books", "books_seq"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceSynchronizer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void synchronize() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        for (String[] table : TABLES) {
+            try {
+                // With pooled ids the next block starts just above the sequence value, so pin it at MAX(id)
+                List<Long> advanced = jdbcTemplate.queryForList(
+                        "SELECT setval('" + table[1] + "', (SELECT MAX(id) FROM " + table[0] + ")) "
+                        + "WHERE (SELECT MAX(id) FROM " + table[0] + ") >= (SELECT last_value FROM " + table[1] + ")",
+                        Long.class);
+                if (!advanced.isEmpty()) {
+                    log.info("Advanced {} to {}", table[1], advanced.get(0));
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not synchronize {} with {}: {}", table[1], table[0], e.getMessage());
+            }
+        }
+    }
+}
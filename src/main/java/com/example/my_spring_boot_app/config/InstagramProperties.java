@@ -0,0 +1,125 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the Instagram upstream, bound from {@code instagram.*} in application.properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "instagram")
+public class InstagramProperties {
+
+    // Profile endpoint; point it at a local stub for tests and load tests
+    private String baseUrl = "https://www.instagram.com/api/v1/users/web_profile_info/";
+
+    private final Cache cache = new Cache();
+
+    private final Batch batch = new Batch();
+
+    private final Resilience resilience = new Resilience();
+
+    private final Raw raw = new Raw();
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        // Turn off to hit instagram.com on every request (e.g. when measuring the upstream itself)
+        private boolean enabled = true;
+
+        // Usernames kept per cache before the least valuable entries are evicted
+        private long maximumSize = 10_000;
+
+        // Hard expiry for a found profile
+        private Duration ttl = Duration.ofMinutes(10);
+
+        // After this age an entry is still served, but reloaded in the background (stale-while-revalidate)
+        private Duration refreshAfter = Duration.ofMinutes(2);
+
+        // How long a "user not found" answer is remembered
+        private Duration negativeTtl = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+
+        // Upstream lookups in flight per batch request when the caller doesn't ask for a value
+        private int concurrency = 8;
+
+        // Upper bound for the caller-supplied ?concurrency= value
+        private int maxConcurrency = 32;
+
+        // Largest username list accepted in one request
+        private int maxUsernames = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Raw {
+
+        // Relay instagram.com's bytes for /profile/{username}/raw as they arrive, instead of
+        // decoding them into a (cached) String first. Saves heap per request, but skips the cache.
+        private boolean passthrough = false;
+
+        // In passthrough mode, ask for gzip when the client accepts it and relay the compressed bytes as-is
+        private boolean gzip = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        // Whole-exchange deadline for a single attempt (response headers must arrive within it)
+        private Duration callTimeout = Duration.ofSeconds(5);
+
+        // Netty connection pool towards instagram.com, and how long a request may wait for a connection
+        private int maxConnections = 100;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+
+        // Retries for idempotent calls that timed out, failed to connect or got 502/503/504
+        private int maxRetries = 2;
+        private Duration retryBackoff = Duration.ofMillis(100);
+        // Retries allowed per first attempt, and how many may be saved up for a burst
+        private double retryBudgetRatio = 0.2;
+        private double retryBudgetMax = 10;
+
+        private final Limiter limiter = new Limiter();
+        private final Breaker circuitBreaker = new Breaker();
+    }
+
+    @Getter
+    @Setter
+    public static class Limiter {
+
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+
+        // Multiplier applied to the limit when a call is dropped or slower than the threshold
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+
+        // Open when at least this share of the last window-size calls failed
+        private double failureRateThreshold = 0.5;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+
+        // How long to fail fast before letting half-open-calls trial requests through
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+    }
+}
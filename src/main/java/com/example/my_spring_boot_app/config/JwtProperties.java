@@ -0,0 +1,45 @@
+package com.example.my_spring_boot_app.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bearer-token authentication for the API (see SecurityConfig), bound from {@code jwt.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    // Off only for load tests and benchmarks that measure the data path without a login in front of it
+    private boolean enabled = true;
+
+    // Verification keys by key id (the token's "kid" header): a base64 HMAC secret of at least 256 bits,
+    // or a PEM public key (RSA or EC). A token without a kid is accepted only while there is a single key.
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    // Optional properties file of kid=key entries, on top of the keys above; re-read when it changes, so keys
+    // can be added and retired without a restart
+    private Path keyFile;
+
+    // How often the key file is checked for changes
+    private Duration keyRefresh = Duration.ofSeconds(30);
+
+    // When set, tokens must carry exactly this "iss" / "aud"
+    private String issuer;
+    private String audience;
+
+    // Leeway for exp and nbf when the token issuer's clock is off
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    // Verified tokens kept, by SHA-256 of the token; each until its exp, but never longer than cache-ttl
+    private long cacheSize = 100_000;
+    private Duration cacheTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,135 @@
+package com.example.my_spring_boot_app.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Metrics Spring Boot doesn't publish on its own (the rest, per-route latency, Hikari, Hibernate
+ * statistics, WebClient, JVM and GC, comes from the actuator; see the management.* properties).
+ * <ul>
+ * <li>{@code http.server.requests.statements}: SQL statements Hibernate ran for a request, per route.
+ * Counted on the request thread, so work handed to another thread (streamed bodies) isn't included.</li>
+ * <li>{@code jdbc.connections.throttle.*}: the virtual-thread connection throttle, when it's in place.</li>
+ * </ul>
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    MeterBinder throttledDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ThrottledDataSource.class::isInstance)
+                .map(ThrottledDataSource.class::cast)
+                .forEach(throttle -> {
+                    Gauge.builder("jdbc.connections.throttle.waiting", throttle, ThrottledDataSource::getWaiting)
+                            .description("Threads queued for a database connection permit")
+                            .register(registry);
+                    Gauge.builder("jdbc.connections.throttle.max", throttle, ThrottledDataSource::getMaxPermits)
+                            .register(registry);
+                });
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        MeterRegistry meters = meterRegistry.getIfAvailable();
+        if (meters != null) {
+            registry.addInterceptor(new StatementCountInterceptor(meters));
+        }
+    }
+
+    /**
+     * Counts statements for the thread's current request, if one is being counted; a ThreadLocal read otherwise.
+     */
+    static final class StatementCounter implements StatementInspector {
+
+        private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = COUNT.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+
+        static void begin() {
+            COUNT.set(new int[1]);
+        }
+
+        static int end() {
+            int[] count = COUNT.get();
+            COUNT.remove();
+            return count != null ? count[0] : 0;
+        }
+    }
+
+    static final class StatementCountInterceptor implements AsyncHandlerInterceptor {
+
+        private final MeterRegistry registry;
+        // One summary per method and route; looked up per request, so keep the registry's Meter.Id work off the hot path
+        private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+        StatementCountInterceptor(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            StatementCounter.begin();
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            int statements = StatementCounter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            String method = request.getMethod();
+            summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("http.server.requests.statements")
+                    .description("SQL statements executed while handling the request")
+                    .baseUnit("statements")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry))
+                    .record(statements);
+        }
+
+        // Async (Mono, streaming) requests finish on a later dispatch, which runs preHandle/afterCompletion again
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            StatementCounter.end();
+        }
+    }
+}
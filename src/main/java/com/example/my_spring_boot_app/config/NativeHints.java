@@ -0,0 +1,67 @@
+package com.example.my_spring_boot_app.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import com.example.my_spring_boot_app.dto.BookCreateDto;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.BookSearchHit;
+import com.example.my_spring_boot_app.dto.BulkImportResult;
+import com.example.my_spring_boot_app.dto.ProfileLookupResult;
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.dto.StudentPatchDto;
+import com.example.my_spring_boot_app.logging.SampledDebugTurboFilter;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.model.Student;
+
+/**
+ * Reflection the native image can't discover by itself (see the "native" profile in pom.xml).
+ * <ul>
+ * <li>JSON bindings: the DTOs, and {@link InstagramProfile}, which is only ever read by WebClient's decoder and
+ * so never shows up in a controller signature Spring AOT could derive hints from.
+ * Nested types (InstagramProfile.User, BulkImportResult.RowError, ...) are followed automatically.</li>
+ * <li>The JPA entities: Hibernate reads and writes their fields and calls the no-arg constructor reflectively.</li>
+ * <li>Classes logback-spring.xml names; logback instantiates them by name and calls their setters.</li>
+ * </ul>
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] BINDINGS = {
+        InstagramProfile.class,
+        StudentDto.class, StudentCreateDto.class, StudentPatchDto.class, StudentChange.class,
+        BookDto.class, BookCreateDto.class, BookSearchHit.class,
+        BulkImportResult.class, ProfileLookupResult.class
+    };
+
+    private static final Class<?>[] ENTITIES = {Student.class, Book.class};
+
+    private static final String[] LOGBACK_CLASSES = {
+        SampledDebugTurboFilter.class.getName(),
+        "org.springframework.boot.logging.logback.StructuredLogEncoder",
+        "ch.qos.logback.classic.AsyncAppender",
+        "ch.qos.logback.core.rolling.RollingFileAppender",
+        "ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy",
+        "ch.qos.logback.classic.filter.ThresholdFilter"
+    };
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(), BINDINGS);
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (String type : LOGBACK_CLASSES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -5,7 +5,12 @@ import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.info.License;
 import io.swagger.v3.oas.annotations.servers.Server;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.MethodMetadata;
 
 @OpenAPIDefinition(
     info = @Info(
@@ -29,4 +34,31 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class OpenAPIConfig {
 
+    /**
+     * Springdoc's beans (the OpenAPI builder, the model converters, the /v3/api-docs and swagger-ui
+     * controllers) are only created when the docs are first requested instead of during startup. The
+     * document itself is built on that first request and cached by springdoc from then on. With AOT
+     * processing the lazy flags are baked into the generated bean definitions at build time.
+     */
+    @Bean
+    static BeanFactoryPostProcessor lazySpringdoc() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isSpringdoc(BeanDefinition definition) {
+        String type = definition.getBeanClassName();
+        if (type == null && definition instanceof AnnotatedBeanDefinition annotated) {
+            // @Bean methods: go by the configuration class that declares them
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            type = factoryMethod != null ? factoryMethod.getDeclaringClassName() : null;
+        }
+        return type != null && type.startsWith("org.springdoc.");
+    }
 }
\ No newline at end of file
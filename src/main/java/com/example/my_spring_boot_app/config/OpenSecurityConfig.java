@@ -0,0 +1,43 @@
+package com.example.my_spring_boot_app.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.config.observation.SecurityObservationSettings;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * {@code jwt.enabled=false}: no login in front of the API at all (load tests, local experiments). Declared
+ * rather than left to Spring Boot, whose default chain would ask for a user store the application doesn't
+ * have and turn every request away. Same stateless setup as SecurityConfig otherwise.
+ */
+@Configuration
+@EnableWebSecurity
+@ConditionalOnProperty(prefix = "jwt", name = "enabled", havingValue = "false")
+public class OpenSecurityConfig {
+
+    // As in SecurityConfig
+    @Bean
+    public SecurityObservationSettings securityObservationSettings() {
+        return SecurityObservationSettings.noObservations();
+    }
+
+    @Bean
+    public SecurityFilterChain openSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .httpBasic(AbstractHttpConfigurer::disable)
+            .formLogin(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            .headers(headers -> headers.cacheControl(cacheControl -> cacheControl.disable()))
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.my_spring_boot_app.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+/**
+ * {@code application/x-protobuf} for the DTOs in src/main/proto/api.proto: a student, a book or an Instagram
+ * user, and lists of students or books (sent as the *List message, the list in field 1).
+ * <p>
+ * The messages are written and read field by field with protobuf's own wire-format streams instead of
+ * generated classes, so the application doesn't depend on protoc output and nothing is copied into a generated
+ * message first. The field numbers are checked against the schema in BinaryFormatsTests, which reads this
+ * output with classes generated from api.proto at test time.
+ * A list whose element type the handler doesn't declare ({@code ResponseEntity<?>}) is accepted and its
+ * elements are checked as it's written.
+ */
+public class ProtobufMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int LIST_FIELD = 1;
+    // Field 1, length-delimited: (field << 3) | wire type
+    private static final int LIST_TAG = LIST_FIELD << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private static final Map<Class<?>, Message<?>> MESSAGES = Map.of(
+            StudentDto.class, new StudentMessage(),
+            BookDto.class, new BookMessage(),
+            InstagramProfile.User.class, new UserMessage());
+
+    public ProtobufMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return MESSAGES.containsKey(clazz) || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        Class<?> element = resolved.asCollection().resolveGeneric(0);
+        boolean readable = MESSAGES.containsKey(resolved.resolve())
+                || (List.class.equals(resolved.resolve()) && MESSAGES.containsKey(element));
+        return readable && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType) || !supports(clazz)) {
+            return false;
+        }
+        if (type == null || !List.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element == null || element == Object.class || MESSAGES.containsKey(element);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        ResolvableType resolved = ResolvableType.forType(type);
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        if (!List.class.isAssignableFrom(resolved.toClass())) {
+            return message(resolved.toClass(), inputMessage).read(in);
+        }
+        Message<?> message = message(resolved.asCollection().resolveGeneric(0), inputMessage);
+        List<Object> list = new ArrayList<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            if (tag != LIST_TAG) {
+                in.skipField(tag);
+                continue;
+            }
+            int limit = in.pushLimit(in.readRawVarint32());
+            list.add(message.read(in));
+            in.popLimit(limit);
+        }
+        return list;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), 8192);
+        if (value instanceof List<?> list) {
+            for (Object element : list) {
+                Message<Object> message = writable(element);
+                out.writeUInt32NoTag(LIST_TAG);
+                out.writeUInt32NoTag(message.size(element));
+                message.write(element, out);
+            }
+        } else {
+            writable(value).write(value, out);
+        }
+        out.flush();
+    }
+
+    private static Message<?> message(Class<?> type, HttpInputMessage inputMessage) {
+        Message<?> message = MESSAGES.get(type);
+        if (message == null) {
+            throw new HttpMessageNotReadableException("No protobuf message for " + type, inputMessage);
+        }
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message<Object> writable(Object value) {
+        Message<?> message = value == null ? null : MESSAGES.get(value.getClass());
+        if (message == null) {
+            throw new HttpMessageNotWritableException("No protobuf message for " + (value == null ? "null" : value.getClass()));
+        }
+        return (Message<Object>) message;
+    }
+
+    // One message of api.proto: its encoded size (needed up front when it's nested in a list), fields, and parse
+    private interface Message<T> {
+
+        int size(T value);
+
+        void write(T value, CodedOutputStream out) throws IOException;
+
+        T read(CodedInputStream in) throws IOException;
+    }
+
+    private static int sizeOf(int field, Long value) {
+        return value == null ? 0 : CodedOutputStream.computeInt64Size(field, value);
+    }
+
+    private static int sizeOf(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeField(CodedOutputStream out, int field, Long value) throws IOException {
+        if (value != null) {
+            out.writeInt64(field, value);
+        }
+    }
+
+    private static void writeField(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static final class StudentMessage implements Message<StudentDto> {
+
+        @Override
+        public int size(StudentDto student) {
+            return sizeOf(1, student.id()) + sizeOf(2, student.name()) + sizeOf(3, student.email())
+                    + sizeOf(4, student.phone()) + sizeOf(5, student.course()) + sizeOf(6, student.version());
+        }
+
+        @Override
+        public void write(StudentDto student, CodedOutputStream out) throws IOException {
+            writeField(out, 1, student.id());
+            writeField(out, 2, student.name());
+            writeField(out, 3, student.email());
+            writeField(out, 4, student.phone());
+            writeField(out, 5, student.course());
+            writeField(out, 6, student.version());
+        }
+
+        @Override
+        public StudentDto read(CodedInputStream in) throws IOException {
+            Long id = null;
+            Long version = null;
+            String name = null;
+            String email = null;
+            String phone = null;
+            String course = null;
+            for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case 1 -> id = in.readInt64();
+                    case 2 -> name = in.readStringRequireUtf8();
+                    case 3 -> email = in.readStringRequireUtf8();
+                    case 4 -> phone = in.readStringRequireUtf8();
+                    case 5 -> course = in.readStringRequireUtf8();
+                    case 6 -> version = in.readInt64();
+                    default -> in.skipField(tag);
+                }
+            }
+            return new StudentDto(id, name, email, phone, course, version);
+        }
+    }
+
+    private static final class BookMessage implements Message<BookDto> {
+
+        @Override
+        public int size(BookDto book) {
+            return sizeOf(1, book.id()) + sizeOf(2, book.title()) + sizeOf(3, book.author()) + sizeOf(4, book.version());
+        }
+
+        @Override
+        public void write(BookDto book, CodedOutputStream out) throws IOException {
+            writeField(out, 1, book.id());
+            writeField(out, 2, book.title());
+            writeField(out, 3, book.author());
+            writeField(out, 4, book.version());
+        }
+
+        @Override
+        public BookDto read(CodedInputStream in) throws IOException {
+            Long id = null;
+            Long version = null;
+            String title = null;
+            String author = null;
+            for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case 1 -> id = in.readInt64();
+                    case 2 -> title = in.readStringRequireUtf8();
+                    case 3 -> author = in.readStringRequireUtf8();
+                    case 4 -> version = in.readInt64();
+                    default -> in.skipField(tag);
+                }
+            }
+            return new BookDto(id, title, author, version);
+        }
+    }
+
+    private static final class UserMessage implements Message<InstagramProfile.User> {
+
+        @Override
+        public int size(InstagramProfile.User user) {
+            return sizeOf(1, user.getUsername()) + sizeOf(2, user.getFullName()) + sizeOf(3, user.getBiography())
+                    + sizeOf(4, user.getProfilePicUrlHd()) + sizeOf(5, followers(user));
+        }
+
+        @Override
+        public void write(InstagramProfile.User user, CodedOutputStream out) throws IOException {
+            writeField(out, 1, user.getUsername());
+            writeField(out, 2, user.getFullName());
+            writeField(out, 3, user.getBiography());
+            writeField(out, 4, user.getProfilePicUrlHd());
+            writeField(out, 5, followers(user));
+        }
+
+        @Override
+        public InstagramProfile.User read(CodedInputStream in) throws IOException {
+            InstagramProfile.User user = new InstagramProfile.User();
+            for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case 1 -> user.setUsername(in.readStringRequireUtf8());
+                    case 2 -> user.setFullName(in.readStringRequireUtf8());
+                    case 3 -> user.setBiography(in.readStringRequireUtf8());
+                    case 4 -> user.setProfilePicUrlHd(in.readStringRequireUtf8());
+                    case 5 -> {
+                        InstagramProfile.EdgeFollowedBy followers = new InstagramProfile.EdgeFollowedBy();
+                        followers.setCount((int) in.readInt64());
+                        user.setEdgeFollowedBy(followers);
+                    }
+                    default -> in.skipField(tag);
+                }
+            }
+            return user;
+        }
+
+        private static Long followers(InstagramProfile.User user) {
+            return user.getEdgeFollowedBy() == null ? null : (long) user.getEdgeFollowedBy().getCount();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.my_spring_boot_app.config;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.ReactiveStudentRepository;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Wiring for the "reactive" profile: the JDBC DataSource JPA keeps using, the R2DBC repositories,
+ * and id assignment for rows inserted through R2DBC.
+ * <p>
+ * R2DBC has no equivalent of Hibernate's sequence generator, so new rows take their id from the same
+ * sequences before the INSERT is built. Each reactive insert uses one whole sequence value; Hibernate's
+ * pooled optimizer treats a value as the top of its own block of 50, so the two never hand out the same id.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("reactive")
+// Only the reactive repositories; the JPA ones in the same package belong to Spring Data JPA
+@EnableR2dbcRepositories(basePackageClasses = ReactiveStudentRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveDataConfig {
+
+    // Spring Boot skips the JDBC DataSource as soon as an R2DBC ConnectionFactory exists,
+    // but JPA still needs it here, so declare it the way the auto-configuration would
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    BeforeConvertCallback<Student> studentIdAssigner(DatabaseClient databaseClient) {
+        return (student, table) -> student.getId() != null ? Mono.just(student)
+                : nextId(databaseClient, "students_seq").map(id -> {
+                    student.setId(id);
+                    // Version is a JPA @Version only (Spring Data JPA rejects its own annotation), so start it here
+                    student.setVersion(0L);
+                    return student;
+                });
+    }
+
+    @Bean
+    BeforeConvertCallback<Book> bookIdAssigner(DatabaseClient databaseClient) {
+        return (book, table) -> book.getId() != null ? Mono.just(book)
+                : nextId(databaseClient, "books_seq").map(id -> {
+                    book.setId(id);
+                    book.setVersion(0L);
+                    return book;
+                });
+    }
+
+    private static Mono<Long> nextId(DatabaseClient databaseClient, String sequence) {
+        return databaseClient.sql("SELECT nextval('" + sequence + "')")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+}
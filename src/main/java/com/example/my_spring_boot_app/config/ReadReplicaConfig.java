@@ -0,0 +1,133 @@
+package com.example.my_spring_boot_app.config;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * With {@code read-replicas.urls} set, the application's DataSource becomes a
+ * {@link ReadReplicaRoutingDataSource}: {@code @Transactional(readOnly = true)} methods read from the replicas,
+ * everything else uses the primary from {@code spring.datasource.*}.
+ * <p>
+ * With the entity cache on, {@code @Cacheable} methods load from the primary, so what ends up in the caches is
+ * never behind a write. The replicas then serve only the reads that skip the caches, which is little besides
+ * the streamed lists ({@code ?stream=true}); the book catalog and search index load from the primary as well.
+ * With {@code entity-cache.enabled=false} nothing is kept, so every read-only transaction, getStudentById and
+ * the keyset pages included, goes to a replica.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "read-replicas", name = "urls")
+public class ReadReplicaConfig {
+
+    // static: post-processors are created before regular beans, and must not drag this config along early.
+    // Ordered, so it runs before the virtual-thread throttle, which then sits in front of all of it.
+    @Bean
+    static BeanPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<ReadReplicaProperties> properties) {
+        return new RoutingPostProcessor(properties);
+    }
+
+    // Outermost, so the flag is set before the cache interceptor calls the method and its transaction opens;
+    // a cache hit costs a ThreadLocal write. static for the same reason as the post-processor.
+    // Only when there's a real cache: NoOpCacheManager keeps nothing, so those reads can go to a replica
+    @Bean
+    @ConditionalOnProperty(prefix = "entity-cache", name = "enabled", matchIfMissing = true)
+    static Advisor cacheLoadsFromPrimaryAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class),
+                (MethodInterceptor) invocation -> ReadReplicaRoutingDataSource.fromPrimary(invocation::proceed));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    MeterBinder readReplicaMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .map(ReadReplicaConfig::routing)
+                .filter(Objects::nonNull)
+                .forEach(routing -> routing.bindTo(registry));
+    }
+
+    // The session read-your-writes is tracked for: the user the request is authenticated as
+    static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken ? null : authentication.getName();
+    }
+
+    private static ReadReplicaRoutingDataSource routing(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReadReplicaRoutingDataSource.class)
+                    ? dataSource.unwrap(ReadReplicaRoutingDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReadReplicaProperties> properties;
+
+        RoutingPostProcessor(ObjectProvider<ReadReplicaProperties> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // The primary pool, whether Spring Boot or ReactiveDataConfig declared it
+            if (!(bean instanceof HikariDataSource primary)) {
+                return bean;
+            }
+            ReadReplicaProperties settings = properties.getObject();
+            List<String> urls = settings.getUrls();
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            for (int i = 0; i < urls.size(); i++) {
+                replicas.put("replica-" + (i + 1), replica("replica-" + (i + 1), urls.get(i), primary, settings));
+            }
+            log.info("Routing read-only transactions on {} to {} read replicas", beanName, replicas.size());
+            return new ReadReplicaRoutingDataSource(primary, replicas, settings, ReadReplicaConfig::currentUser);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        private static HikariDataSource replica(String name, String url, HikariDataSource primary, ReadReplicaProperties settings) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url);
+            replica.setUsername(settings.getUsername() != null ? settings.getUsername() : primary.getUsername());
+            replica.setPassword(settings.getPassword() != null ? settings.getPassword() : primary.getPassword());
+            replica.setMaximumPoolSize(settings.getMaximumPoolSize());
+            replica.setConnectionTimeout(settings.getConnectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            // Start even when a replica is down; the health check brings it in once it's reachable
+            replica.setInitializationFailTimeout(-1);
+            return replica;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Read replicas for read-only transactions (see ReadReplicaConfig), bound from {@code read-replicas.*}.
+ * Nothing changes unless {@code urls} is set.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "read-replicas")
+public class ReadReplicaProperties {
+
+    // JDBC URLs of the replicas; each gets its own Hikari pool
+    private List<String> urls = new ArrayList<>();
+
+    // Default to the primary's credentials
+    private String username;
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    // How long a read waits for a replica connection before that replica counts as down and the next one is tried
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    // How often replicas are checked; one that is down gets no reads until a check finds it up again
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // After a session (the authenticated user) commits a write, its reads stay on the primary this long, so it
+    // sees its own writes despite replication lag; zero turns it off
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    // Sessions remembered for read-your-writes at a time
+    private long maxTrackedSessions = 100_000;
+}
@@ -0,0 +1,235 @@
+package com.example.my_spring_boot_app.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends read-only transactions to the replicas and everything else to the primary.
+ * <p>
+ * The physical connection is only fetched at the first statement, by which time the transaction manager has
+ * marked the connection read-only or not (see {@link LazyConnectionDataSourceProxy#setReadOnlyDataSource}).
+ * Reads go round-robin over the replicas that are up; a replica whose connection fails is taken out until the
+ * background check finds it up again, and with none left the primary serves the reads as well.
+ * <p>
+ * Read-your-writes: once a session has committed a write, its reads stay on the primary for
+ * {@code read-your-writes-window}. Reads without a session (no authenticated user) always use a replica.
+ * <p>
+ * Reads whose result is kept and handed to everyone (cache loads, the book catalog and search index) go to the
+ * primary, see {@link #fromPrimary}: a replica that hasn't caught up with a write would otherwise be remembered
+ * for as long as the copy lives, and served to the writer as well.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements MeterBinder, AutoCloseable {
+
+    // Set while fromPrimary runs: reads on this thread skip the replicas
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Supplier<String> sessionKey;
+    // Sessions that committed a write within the window
+    private final Cache<String, Boolean> recentWriters;
+    private final int checkTimeoutSeconds;
+    private final ScheduledExecutorService healthChecker;
+    private Counter replicaReads;
+    private Counter primaryReads;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            ReadReplicaProperties properties, Supplier<String> sessionKey) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.sessionKey = sessionKey;
+        this.recentWriters = properties.getReadYourWritesWindow().isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedSessions())
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+        this.checkTimeoutSeconds = (int) Math.max(1, properties.getConnectionTimeout().toSeconds());
+
+        setTargetDataSource(new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                rememberWriteOnCommit();
+                return super.getConnection();
+            }
+        });
+        setReadOnlyDataSource(new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return readConnection();
+            }
+        });
+        afterPropertiesSet();
+
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("jdbc-replica-health").daemon().factory());
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        replicaReads = Counter.builder("jdbc.reads").tag("target", "replica")
+                .description("Read-only transactions by where they ran").register(registry);
+        primaryReads = Counter.builder("jdbc.reads").tag("target", "primary")
+                .description("Read-only transactions by where they ran").register(registry);
+        for (Replica replica : replicas) {
+            Gauge.builder("jdbc.replica.up", replica, r -> r.up ? 1 : 0).tag("replica", replica.name).register(registry);
+        }
+    }
+
+    // The pools go with it: this replaces the primary's bean, so nothing else would close them
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+        closeQuietly(primary);
+    }
+
+    // The primary's pool and each replica's, for whoever needs to know how many connections there are in all
+    public List<DataSource> getPools() {
+        List<DataSource> pools = new ArrayList<>(replicas.size() + 1);
+        pools.add(primary);
+        replicas.forEach(replica -> pools.add(replica.dataSource));
+        return pools;
+    }
+
+    /**
+     * Runs {@code reads} with the read-only transactions on this thread going to the primary. Only the
+     * connections fetched inside count: a transaction that already holds a replica connection keeps it.
+     * Without replicas configured this just runs {@code reads}.
+     */
+    public static <T, E extends Throwable> T fromPrimary(PrimaryReads<T, E> reads) throws E {
+        if (PRIMARY_ONLY.get() != null) {
+            return reads.run();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.run();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface PrimaryReads<T, E extends Throwable> {
+
+        T run() throws E;
+    }
+
+    private Connection readConnection() throws SQLException {
+        if (PRIMARY_ONLY.get() != null) {
+            return primaryRead();
+        }
+        if (recentWriters != null) {
+            String session = sessionKey.get();
+            if (session != null && recentWriters.getIfPresent(session) != null) {
+                return primaryRead();
+            }
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.up) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                if (replicaReads != null) {
+                    replicaReads.increment();
+                }
+                return connection;
+            } catch (SQLException e) {
+                replica.up = false;
+                log.warn("Read replica {} is down, reading elsewhere until it's back: {}", replica.name, e.getMessage());
+            }
+        }
+        return primaryRead();
+    }
+
+    private Connection primaryRead() throws SQLException {
+        if (primaryReads != null) {
+            primaryReads.increment();
+        }
+        return primary.getConnection();
+    }
+
+    // Only for transactions that could write; the session is taken now, on the transaction's thread
+    private void rememberWriteOnCommit() {
+        if (recentWriters == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String session = sessionKey.get();
+        if (session != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(session, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean up;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                up = connection.isValid(checkTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                up = false;
+            }
+            if (up != replica.up) {
+                log.info("Read replica {} is {}", replica.name, up ? "up again" : "down");
+                replica.up = up;
+            }
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close {}: {}", dataSource, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean up = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Correlation ids, the slow-request log and debug-log sampling, bound from {@code request-logging.*}
+ * in application.properties. See RequestLoggingFilter.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "request-logging")
+public class RequestLoggingProperties {
+
+    // Taken from the request when the caller (or a proxy) already set one, otherwise generated; always echoed back
+    private String correlationHeader = "X-Request-Id";
+
+    // Requests at or above this go to the slow log (logs/slow.log); zero turns the slow-request log off
+    private Duration slowRequestThreshold = Duration.ofMillis(500);
+
+    // Share of requests (0..1) whose DEBUG output is kept; the rest only log INFO and up
+    private double debugSampleRate = 0.01;
+
+    // A request carrying this header with value "true" is always sampled, handy when reproducing an issue
+    private String debugHeader = "X-Debug-Log";
+}
@@ -0,0 +1,95 @@
+package com.example.my_spring_boot_app.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.config.observation.SecurityObservationSettings;
+import org.springframework.security.config.web.PathPatternRequestMatcherBuilderFactoryBean;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+import com.example.my_spring_boot_app.security.JwtAuthenticationFilter;
+import com.example.my_spring_boot_app.security.JwtAuthenticator;
+import com.example.my_spring_boot_app.security.JwtKeyRing;
+
+/**
+ * Stateless bearer-token security for the API: every /api request needs a valid JWT (see JwtProperties for
+ * the keys). No session, no CSRF token (nothing is kept in a cookie), no form or basic login. The API docs,
+ * Swagger UI and the health endpoint stay open; the other actuator endpoints need a token as well.
+ * With {@code jwt.enabled=false} OpenSecurityConfig takes its place.
+ */
+@Configuration
+@EnableWebSecurity
+@ConditionalOnProperty(prefix = "jwt", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecurityConfig {
+
+    @Bean
+    public JwtKeyRing jwtKeyRing(JwtProperties properties) {
+        return new JwtKeyRing(properties);
+    }
+
+    @Bean
+    public JwtAuthenticator jwtAuthenticator(JwtProperties properties, JwtKeyRing keyRing) {
+        return new JwtAuthenticator(properties, keyRing);
+    }
+
+    // requestMatchers("/...") as plain path patterns; the default MVC matchers look up the handler mapping on
+    // every request for every pattern they are checked against
+    @Bean
+    public PathPatternRequestMatcherBuilderFactoryBean requestMatcherBuilder() {
+        return new PathPatternRequestMatcherBuilderFactoryBean();
+    }
+
+    // No observation around every security filter on every request: http.server.requests already times the
+    // whole request, and the wrapping alone costs more than checking a cached token
+    @Bean
+    public SecurityObservationSettings securityObservationSettings() {
+        return SecurityObservationSettings.noObservations();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticator authenticator) throws Exception {
+        AuthenticationEntryPoint entryPoint = bearerEntryPoint();
+        // Not a bean, so the servlet container doesn't register it a second time outside the security chain
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(authenticator, entryPoint);
+
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .httpBasic(AbstractHttpConfigurer::disable)
+            .formLogin(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            // Keep the default security headers except no-store: it would stop clients revalidating with the ETags.
+            // Responses to requests with an Authorization header are never kept by shared caches anyway.
+            .headers(headers -> headers.cacheControl(cacheControl -> cacheControl.disable()))
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+            .addFilterBefore(jwtFilter, AnonymousAuthenticationFilter.class)
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(entryPoint))
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/", "/index.html", "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/actuator/health/**", "/error").permitAll()
+                .anyRequest().authenticated());
+
+        return http.build();
+    }
+
+    // RFC 6750: 401 with a Bearer challenge, naming the error when a token was sent but didn't check out
+    private static AuthenticationEntryPoint bearerEntryPoint() {
+        return (request, response, exception) -> {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, exception instanceof BadCredentialsException
+                    ? "Bearer error=\"invalid_token\""
+                    : "Bearer");
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.my_spring_boot_app.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true} (see application-virtual.properties).
+ * Spring Boot already moves Tomcat, {@code @Async} and scheduling onto virtual threads; this adds
+ * a connection throttle in front of Hikari and a monitor that reports carrier pinning.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // static: post-processors are created before regular beans, and must not drag this config along early
+    @Bean
+    static BeanPostProcessor throttledDataSourcePostProcessor(ObjectProvider<VirtualThreadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ThrottledDataSource) {
+                    return bean;
+                }
+                VirtualThreadProperties settings = properties.getObject();
+                int permits = settings.getMaxConcurrentConnections();
+                if (permits <= 0) {
+                    permits = poolSize(dataSource);
+                }
+                log.info("Limiting {} to {} concurrent connection holders", beanName, permits);
+                return new ThrottledDataSource(dataSource, permits, settings.getConnectionAcquireTimeout());
+            }
+        };
+    }
+
+    // Pinned virtual threads block their carrier (e.g. I/O inside synchronized); JFR tells us where
+    @Bean(destroyMethod = "close")
+    RecordingStream pinnedThreadMonitor(VirtualThreadProperties properties) {
+        RecordingStream stream = new RecordingStream();
+        Duration threshold = properties.getPinnedThreshold();
+        if (threshold.isZero()) {
+            return stream;
+        }
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event -> log.warn("Virtual thread pinned for {}ms at {}",
+                event.getDuration().toMillis(),
+                event.getStackTrace() == null ? "?" : event.getStackTrace().getFrames().stream()
+                        .limit(8)
+                        .map(VirtualThreadConfig::describe)
+                        .toList()));
+        stream.startAsync();
+        return stream;
+    }
+
+    // The Hikari pool's size, also when it's wrapped. Behind ReadReplicaRoutingDataSource that's the primary's
+    // pool and every replica's together, so each replica adds the reads it can take
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(ReadReplicaRoutingDataSource.class)) {
+                return dataSource.unwrap(ReadReplicaRoutingDataSource.class).getPools().stream()
+                        .mapToInt(VirtualThreadConfig::poolSize)
+                        .sum();
+            }
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() : 10;
+        } catch (SQLException e) {
+            return 10;
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
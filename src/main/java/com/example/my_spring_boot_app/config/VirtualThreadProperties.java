@@ -0,0 +1,26 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Safeguards that apply when {@code spring.threads.virtual.enabled=true}, bound from {@code virtual-threads.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "virtual-threads")
+public class VirtualThreadProperties {
+
+    // Threads allowed to hold or wait in line for a JDBC connection at once; 0 means the Hikari pool size
+    private int maxConcurrentConnections = 0;
+
+    // How long a thread queues for a connection permit before the request fails
+    private Duration connectionAcquireTimeout = Duration.ofSeconds(30);
+
+    // Log a virtual thread that stays pinned to its carrier longer than this; zero turns the monitor off
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
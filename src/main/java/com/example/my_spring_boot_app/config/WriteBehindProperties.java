@@ -0,0 +1,33 @@
+package com.example.my_spring_boot_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Write-behind mode for POST /api/students and /api/books, bound from {@code write-behind.*}
+ * (see WriteBehindService).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "write-behind")
+public class WriteBehindProperties {
+
+    // Off: every create runs its own transaction, as before
+    private boolean enabled = false;
+
+    // Rows per transaction; matches hibernate.jdbc.batch_size and the id sequences' allocation size
+    private int batchSize = 50;
+
+    // How long the oldest queued row waits for others to fill its batch before it's written anyway
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    // Rows queued or being written, per entity type; creates beyond that are turned away (429)
+    private int capacity = 10_000;
+
+    // Zero: turn a create away as soon as the buffer is full; otherwise wait up to this long for room first
+    private Duration offerTimeout = Duration.ZERO;
+}
@@ -0,0 +1,207 @@
+package com.example.my_spring_boot_app.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.my_spring_boot_app.config.BookCatalogProperties;
+import com.example.my_spring_boot_app.config.ReadReplicaRoutingDataSource;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.service.BookSavedEvent;
+import com.example.my_spring_boot_app.service.BookService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The whole book list as the JSON bytes {@code GET /api/books} sends, so a request for it serializes nothing.
+ * <p>
+ * Every book is encoded once and kept by id; a save re-encodes only that book, and the list is put back
+ * together by copying the encoded books into a new array. Each result is an immutable {@link Snapshot} that
+ * replaces the previous one in a single write, so a request sends either the catalog before a commit or the
+ * one after it, never a mix. The snapshot's ETag is the same digest of ids and versions the paged lists use,
+ * so every instance holding the same books hands out the same tag.
+ * <p>
+ * Like the other caches this follows the saves made through this instance; rows changed behind its back show
+ * up after a restart.
+ */
+@Slf4j
+@Component
+class BookCatalog {
+
+    private final BookCatalogProperties properties;
+    private final BookService bookService;
+    private final ObjectWriter writer;
+
+    // Guarded by this, like loaded: each book's JSON by id, the order the list is sent in
+    private final TreeMap<Long, Entry> entries = new TreeMap<>();
+    private boolean loaded;
+    private volatile Snapshot current;
+
+    BookCatalog(BookCatalogProperties properties, BookService bookService, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.bookService = bookService;
+        // The same mapper the message converters use, so the bytes match what serializing the list would give
+        this.writer = objectMapper.writerFor(BookDto.class);
+    }
+
+    // Null until the catalog has been loaded, and when it's disabled
+    Snapshot current() {
+        return current;
+    }
+
+    // Until this is done GET /api/books takes the regular path; saves in the meantime are kept if they're newer
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        // From the primary: a lagging replica would leave books out until the next restart
+        ReadReplicaRoutingDataSource.fromPrimary(() -> {
+            bookService.streamAllBooks(book -> {
+                synchronized (this) {
+                    put(book);
+                }
+            });
+            return null;
+        });
+        synchronized (this) {
+            loaded = true;
+            Snapshot snapshot = publish();
+            log.info("Book catalog ready: {} books, {} bytes of JSON, in {} ms", entries.size(), snapshot.json.length,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    // After commit, so a rolled-back save is never served; immediately when there's no transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            put(BookDto.from(event.book()));
+            if (loaded) {
+                publish();
+            }
+        }
+    }
+
+    private void put(BookDto book) {
+        Entry existing = entries.get(book.id());
+        if (existing != null && version(existing.version()) > version(book.version())) {
+            // The load read the row before a save that has already been applied
+            return;
+        }
+        try {
+            entries.put(book.id(), new Entry(book.id(), book.version(), writer.writeValueAsBytes(book)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't encode book " + book.id(), e);
+        }
+    }
+
+    private Snapshot publish() {
+        int size = 2 + Math.max(0, entries.size() - 1);
+        for (Entry entry : entries.values()) {
+            size += entry.json().length;
+        }
+        byte[] json = new byte[size];
+        int position = 0;
+        json[position++] = '[';
+        for (Entry entry : entries.values()) {
+            if (position > 1) {
+                json[position++] = ',';
+            }
+            System.arraycopy(entry.json(), 0, json, position, entry.json().length);
+            position += entry.json().length;
+        }
+        json[position] = ']';
+        String etag = ETags.ofList(new ArrayList<>(entries.values()), Entry::id, Entry::version);
+        current = new Snapshot(json, etag, properties.isGzip() && json.length >= properties.getGzipMinSize());
+        return current;
+    }
+
+    private static long version(Long version) {
+        return version == null ? -1 : version;
+    }
+
+    private record Entry(Long id, Long version, byte[] json) {
+    }
+
+    /**
+     * One state of the catalog. The gzipped copy is made by the first request that accepts gzip, so a burst of
+     * saves (a write-behind batch, say) doesn't compress a catalog nobody fetches in between.
+     */
+    static final class Snapshot {
+
+        private final byte[] json;
+        private final String etag;
+        private final boolean gzip;
+        private volatile byte[] gzipped;
+
+        Snapshot(byte[] json, String etag, boolean gzip) {
+            this.json = json;
+            this.etag = etag;
+            this.gzip = gzip;
+        }
+
+        // With a matching If-None-Match, Spring MVC turns this into a 304 and the bytes stay put
+        ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+            if (!gzip) {
+                return response.eTag(etag).body(json);
+            }
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                // A different representation, so a different strong tag
+                return response.eTag(etag.substring(0, etag.length() - 1) + "-gzip\"")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(gzipped());
+            }
+            return response.eTag(etag).body(json);
+        }
+
+        byte[] json() {
+            return json;
+        }
+
+        String etag() {
+            return etag;
+        }
+
+        private byte[] gzipped() {
+            byte[] compressed = gzipped;
+            if (compressed == null) {
+                synchronized (this) {
+                    compressed = gzipped;
+                    if (compressed == null) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+                        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                            gzipOut.write(json);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        compressed = out.toByteArray();
+                        gzipped = compressed;
+                    }
+                }
+            }
+            return compressed;
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.example.my_spring_boot_app.controller;
 
-import com.example.my_spring_boot_app.dto.BookCreateDto;    // Import the new DTO
-import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.BookSearchHit;
+import com.example.my_spring_boot_app.service.BookSearchService;
 import com.example.my_spring_boot_app.service.BookService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,14 +35,73 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private BookCatalog bookCatalog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public List<Book> getAllBooks() {
-        return bookService.getAllBooks();
+    @ApiResponse(responseCode = "200", description = "Books in id order",
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = BookDto.class))))
+    public ResponseEntity<?> getAllBooks(
+        @Parameter(description = "Return books with an id greater than this one (keyset cursor)")
+        @RequestParam(required = false) Long after,
+        @Parameter(description = "Page size, capped at " + ListingSupport.MAX_PAGE_SIZE)
+        @RequestParam(required = false) Integer limit,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Both come out of the list cache; with a matching If-None-Match the ETag turns this into a 304 unserialized
+        if (after == null && limit == null) {
+            // No paging requested: the whole catalog, already encoded (and gzipped, if the client takes it).
+            // It's JSON, so a client asking for one of the binary formats gets the list converted instead
+            BookCatalog.Snapshot catalog = bookCatalog.current();
+            if (catalog != null && ListingSupport.prefersJson(accept)) {
+                return catalog.toResponse(acceptEncoding);
+            }
+            List<BookDto> books = bookService.getAllBooks();
+            return ResponseEntity.ok().eTag(ETags.ofList(books, BookDto::id, BookDto::version)).body(books);
+        }
+        int pageSize = ListingSupport.pageSize(limit);
+        List<BookDto> page = bookService.getBooksAfter(after, pageSize);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList(page, BookDto::id, BookDto::version))
+                .headers(ListingSupport.nextPageLink(page, pageSize, BookDto::id))
+                .body(page);
+    }
+
+    // Opt-in streaming mode: rows go out as they come off the JDBC cursor
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        StreamingResponseBody body = ListingSupport.jsonArray(objectMapper, bookService::streamAllBooks);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Prefix, substring and typo-tolerant match on title and author, best matches first
+    @GetMapping("/search")
+    public List<BookSearchHit> searchBooks(
+        @Parameter(description = "What to look for, e.g. \"harry pot\" or \"rowlnig\"")
+        @RequestParam String q,
+        @Parameter(description = "Number of results (default and cap set by book-search.*)")
+        @RequestParam(required = false) Integer limit) {
+        return bookSearchService.search(q, limit);
     }
 
     @GetMapping("/{id}")
-    public Book getBookById(@PathVariable Long id) {
-        return bookService.getBookById(id);
+    public ResponseEntity<BookDto> getBookById(@PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Still current: answered from the version alone
+            String current = ETags.of(bookService.getBookVersion(id));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        BookDto book = bookService.getBookById(id);
+        return ResponseEntity.ok().eTag(ETags.of(book.version())).body(book);
     }
 
     // @PostMapping
@@ -37,13 +109,5 @@ public class BookController {
     //     return bookService.saveBook(book);
     // }
 
-    @PostMapping
-    public Book createBook(@RequestBody BookCreateDto bookDto) {
-        // Convert the DTO to a JPA entity
-        Book book = new Book();
-        book.setTitle(bookDto.getTitle());
-        book.setAuthor(bookDto.getAuthor());
-
-        return bookService.saveBook(book);
-    }
+    // POST is in CreateController, or WriteBehindCreateController with write-behind.enabled=true
 }   
\ No newline at end of file
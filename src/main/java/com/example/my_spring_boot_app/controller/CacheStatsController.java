@@ -0,0 +1,49 @@
+package com.example.my_spring_boot_app.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+
+@Tags({@Tag(name = "Caches", description = "Book and student cache statistics")})
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Hit ratio, size and evictions of the book/student caches (empty when entity-cache.enabled=false)
+    @GetMapping("/stats")
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name).getNativeCache() instanceof Cache<?, ?> cache) {
+                stats.put(name, describe(cache));
+            }
+        }
+        return stats;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.estimatedSize());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictionCount", stats.evictionCount());
+        description.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return description;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.my_spring_boot_app.controller;
+
+import com.example.my_spring_boot_app.dto.BookCreateDto;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.service.BookService;
+import com.example.my_spring_boot_app.service.StudentService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /api/students and /api/books, one transaction and commit per request. With write-behind.enabled=true
+ * WriteBehindCreateController takes these paths over. They're apart from StudentController and BookController
+ * because Spring MVC picks the async path by the declared return type: a CompletableFuture, even a completed
+ * one, would send every create through a second (async) dispatch.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(prefix = "write-behind", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class CreateController {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Tag(name = "Student Operations")
+    @PostMapping("/students")
+    public StudentDto createStudent(@RequestBody StudentCreateDto studentDto) {
+        return studentService.createStudent(studentDto.toEntity());
+    }
+
+    @Tag(name = "Book Management")
+    @PostMapping("/books")
+    public BookDto createBook(@RequestBody BookCreateDto bookDto) {
+        return bookService.saveBook(bookDto.toEntity());
+    }
+}
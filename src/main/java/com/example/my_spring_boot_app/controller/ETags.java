@@ -0,0 +1,99 @@
+package com.example.my_spring_boot_app.controller;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong ETags made from the version column, so conditional requests can be decided without serializing
+ * anything: a student's or book's tag is its version, a list's tag is a digest of the ids and versions on it.
+ * <p>
+ * Lists and rows that were loaded anyway go out as {@code ResponseEntity.eTag(...)}; Spring MVC then answers
+ * a matching {@code If-None-Match} with 304 and skips the body. For a single row the controllers compare the
+ * version first (see {@link #matches}), so a poll that's still current doesn't load the row at all.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    // Changes whenever a row on the list is added, removed or updated (every update bumps its version)
+    static <T> String ofList(List<T> rows, Function<T, Long> idOf, Function<T, Long> versionOf) {
+        long hash = rows.size();
+        for (T row : rows) {
+            hash = mix(hash * 31 + idOf.apply(row));
+            Long version = versionOf.apply(row);
+            hash = mix(hash * 31 + (version == null ? -1 : version));
+        }
+        return "\"l" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the current tag (weak comparison, as RFC 9110 asks for
+     * If-None-Match, so {@code W/"3"} matches {@code "3"}).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header asks for, or null when there is no header (or it's {@code *}):
+     * the write then goes ahead whatever the current version is. Anything but a single strong tag of ours
+     * can never match, so it fails straight away.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match doesn't match the current version");
+    }
+
+    /**
+     * Runs a write that was guarded with If-Match. The version check is part of the UPDATE/DELETE itself;
+     * the services report a mismatch as 409, which for a conditional request is a failed precondition.
+     */
+    static <T> T ifMatch(Long expectedVersion, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (ResponseStatusException e) {
+            if (expectedVersion != null && e.getStatusCode() == HttpStatus.CONFLICT) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getReason());
+            }
+            throw e;
+        }
+    }
+
+    // 64-bit finalizer from MurmurHash3, so neighbouring ids and versions spread over the whole hash
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.my_spring_boot_app.controller;
 
+import com.example.my_spring_boot_app.config.InstagramProperties;
+import com.example.my_spring_boot_app.dto.ProfileLookupResult;
 import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.resilience.UpstreamUnavailableException;
 import com.example.my_spring_boot_app.service.InstagramService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -9,13 +12,36 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 @Slf4j
 @Tags({@Tag(name = "Instagram Operations", description = "Operations related to Instagram profiles")})
@@ -23,10 +49,20 @@ import java.util.Optional;
 @RequestMapping("/api/instagram")
 public class InstagramController {
 
+    // Same answer the buffered endpoint gives for an unknown user
+    private static final byte[] EMPTY_JSON = "{}".getBytes(StandardCharsets.UTF_8);
+
+    // Upstream buffers requested ahead of the servlet writes
+    private static final int RELAY_PREFETCH = 4;
+
     private final InstagramService instagramService;
+    private final InstagramProperties.Batch batchProperties;
+    private final InstagramProperties.Raw rawProperties;
 
-    public InstagramController(InstagramService instagramService) {
+    public InstagramController(InstagramService instagramService, InstagramProperties properties) {
         this.instagramService = instagramService;
+        this.batchProperties = properties.getBatch();
+        this.rawProperties = properties.getRaw();
     }
 
     // @Schema(description = "Get Instagram user profile by username", example = "sakshi_raghu_1c_")
@@ -45,11 +81,107 @@ public class InstagramController {
 
     // Endpoint that returns raw JSON
     @GetMapping(value = "/profile/{username}/raw", produces = "application/json")
-    public Mono<String> getRawProfile(
+    public Mono<ResponseEntity<StreamingResponseBody>> getRawProfile(
         @Parameter(description = "Instagram username", example = "sakshi_raghu_1c_")
-        @PathVariable("username") String username) 
+        @PathVariable("username") String username,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
     {
-        return instagramService.getRawProfileByUsername(username);
+        if (!rawProperties.isPassthrough()) {
+            return instagramService.getRawProfileByUsername(username)
+                    .map(json -> json(json.getBytes(StandardCharsets.UTF_8)));
+        }
+        boolean gzip = rawProperties.isGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        return instagramService.streamRawProfile(username, gzip)
+                .map(upstream -> ResponseEntity.ok()
+                        .headers(relayedHeaders(upstream.getHeaders()))
+                        .body(relay(upstream.getBody())))
+                .defaultIfEmpty(json(EMPTY_JSON));
+    }
+
+    // Batch lookup: one NDJSON line per username, written as soon as that lookup finishes
+    @PostMapping(value = "/profiles", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProfileLookupResult> getUserProfiles(
+        @RequestBody List<String> usernames,
+        @Parameter(description = "Maximum upstream lookups in flight for this batch", example = "8")
+        @RequestParam(required = false) Integer concurrency) {
+        if (usernames.isEmpty() || usernames.size() > batchProperties.getMaxUsernames()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + batchProperties.getMaxUsernames() + " usernames are accepted per batch");
+        }
+        int limit = concurrency == null ? batchProperties.getConcurrency()
+                : Math.max(1, Math.min(concurrency, batchProperties.getMaxConcurrency()));
+        log.info("Fetching {} Instagram profiles, {} at a time", usernames.size(), limit);
+        return instagramService.getProfiles(usernames, limit);
+    }
+
+    // Hit ratio, evictions and load latency of the profile caches
+    @GetMapping("/cache/stats")
+    public Map<String, Map<String, Object>> getCacheStats() {
+        return instagramService.getCacheStats();
+    }
+
+    // Adaptive concurrency limit and circuit breaker state for the instagram.com client
+    @GetMapping("/upstream/stats")
+    public Map<String, Object> getUpstreamStats() {
+        return instagramService.getUpstreamStats();
+    }
+
+    private static ResponseEntity<StreamingResponseBody> json(byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(out -> out.write(body));
+    }
+
+    // Only what describes the body; hop-by-hop and cookie headers from instagram.com stay behind
+    private static HttpHeaders relayedHeaders(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(Optional.ofNullable(upstream.getContentType()).orElse(MediaType.APPLICATION_JSON));
+        if (upstream.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            headers.put(HttpHeaders.CONTENT_ENCODING, upstream.get(HttpHeaders.CONTENT_ENCODING));
+        }
+        if (upstream.getContentLength() >= 0) {
+            headers.setContentLength(upstream.getContentLength());
+        }
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        return headers;
+    }
+
+    // Writes each upstream buffer to the response and releases it straight away, so at most a few
+    // network-sized chunks are held per request. The blocking writes happen on the MVC async
+    // thread, never on a Netty event loop.
+    private static StreamingResponseBody relay(Flux<DataBuffer> body) {
+        return out -> {
+            WritableByteChannel channel = Channels.newChannel(out);
+            // Closing the stream cancels the upstream body if the client went away mid-way
+            try (Stream<DataBuffer> buffers = body
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .toStream(RELAY_PREFETCH)) {
+                Iterator<DataBuffer> iterator = buffers.iterator();
+                while (iterator.hasNext()) {
+                    DataBuffer buffer = iterator.next();
+                    try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                        while (chunks.hasNext()) {
+                            ByteBuffer chunk = chunks.next();
+                            while (chunk.hasRemaining()) {
+                                channel.write(chunk);
+                            }
+                        }
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                }
+            }
+        };
+    }
+
+    // Upstream is down, saturated or too slow: tell the client to back off instead of returning a 500
+    @ExceptionHandler({UpstreamUnavailableException.class, TimeoutException.class, WebClientRequestException.class})
+    public ResponseEntity<Map<String, String>> handleUpstreamUnavailable(Exception e) {
+        log.warn("Instagram upstream unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "Instagram is currently unavailable, try again later"));
     }
 
 }
\ No newline at end of file
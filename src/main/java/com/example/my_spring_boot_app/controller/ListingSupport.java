@@ -0,0 +1,113 @@
+package com.example.my_spring_boot_app.controller;
+
+import com.example.my_spring_boot_app.config.ProtobufMessageConverter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Shared helpers for the list endpoints: keyset page sizing, the "next page" link, whether the client
+ * wants JSON, and writing a JSON array row by row instead of materializing it first.
+ */
+final class ListingSupport {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    // The alternatives to JSON a client can ask for (see BinaryFormatsConfig)
+    private static final List<MediaType> BINARY_TYPES = List.of(
+            new MediaType("application", "x-jackson-smile"), MediaType.APPLICATION_CBOR, ProtobufMessageConverter.PROTOBUF);
+
+    private ListingSupport() {
+    }
+
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Whether content negotiation would answer this Accept header with JSON: the client's most preferred type
+     * that one of our formats produces is JSON, or a wildcard (JSON comes first). Null means no Accept header.
+     */
+    static boolean prefersJson(String accept) {
+        if (accept == null) {
+            return true;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            // The regular path reports it
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(types);
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (BINARY_TYPES.stream().anyMatch(type::isCompatibleWith)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds an RFC 8288 {@code Link: <...>; rel="next"} header when the page came back full,
+     * pointing at the same request with {@code after} moved to the last id on this page.
+     */
+    static <T> HttpHeaders nextPageLink(List<T> page, int limit, Function<T, Long> idOf) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.size() == limit) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", idOf.apply(page.get(page.size() - 1)))
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    /**
+     * Streams rows produced by {@code source} to the response as a single JSON array.
+     * Each row is serialized as soon as it is handed over, so nothing but the current row is held.
+     */
+    static <T> StreamingResponseBody jsonArray(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        // Let the servlet buffer decide when to flush, rather than pushing a packet per row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                source.accept(row -> {
+                    try {
+                        writer.writeValue(generator, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.my_spring_boot_app.controller;
+
+import com.example.my_spring_boot_app.dto.BookCreateDto;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.service.ReactiveBookService;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Tags({@Tag(name = "Book Management (reactive)", description = "R2DBC-backed book APIs, enabled with the reactive profile")})
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive/books")
+public class ReactiveBookController {
+
+    @Autowired
+    private ReactiveBookService bookService;
+
+    // As NDJSON each row is written as soon as it's read, and the next one is only requested once
+    // the response has taken it; as JSON the rows are collected into one array first
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<BookDto> getAllBooks(
+        @Parameter(description = "Return books with an id greater than this one (keyset cursor)")
+        @RequestParam(required = false) Long after,
+        @Parameter(description = "Page size, capped at " + ListingSupport.MAX_PAGE_SIZE)
+        @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return bookService.getAllBooks().map(BookDto::from);
+        }
+        return bookService.getBooksAfter(after, ListingSupport.pageSize(limit)).map(BookDto::from);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<BookDto> getBookById(@PathVariable Long id) {
+        return bookService.getBookById(id).map(BookDto::from);
+    }
+
+    @PostMapping
+    public Mono<BookDto> createBook(@RequestBody BookCreateDto bookDto) {
+        Book book = new Book();
+        book.setTitle(bookDto.getTitle());
+        book.setAuthor(bookDto.getAuthor());
+        return bookService.saveBook(book).map(BookDto::from);
+    }
+}
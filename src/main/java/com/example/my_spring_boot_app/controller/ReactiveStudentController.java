@@ -0,0 +1,60 @@
+package com.example.my_spring_boot_app.controller;
+
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.service.ReactiveStudentService;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Tags({@Tag(name = "Student Operations (reactive)", description = "R2DBC-backed student APIs, enabled with the reactive profile")})
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive/students")
+public class ReactiveStudentController {
+
+    @Autowired
+    private ReactiveStudentService studentService;
+
+    // NDJSON streams with backpressure from the database cursor; JSON is collected into one array
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<StudentDto> getAllStudents(
+        @Parameter(description = "Return students with an id greater than this one (keyset cursor)")
+        @RequestParam(required = false) Long after,
+        @Parameter(description = "Page size, capped at " + ListingSupport.MAX_PAGE_SIZE)
+        @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return studentService.getAllStudents().map(StudentDto::from);
+        }
+        return studentService.getStudentsAfter(after, ListingSupport.pageSize(limit)).map(StudentDto::from);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<StudentDto> getStudentById(@PathVariable Long id) {
+        return studentService.getStudentById(id).map(StudentDto::from);
+    }
+
+    @PostMapping
+    public Mono<StudentDto> createStudent(@RequestBody StudentCreateDto studentDto) {
+        return studentService.createStudent(studentDto.toEntity()).map(StudentDto::from);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<StudentDto> updateStudent(@PathVariable Long id, @RequestBody StudentCreateDto studentDto) {
+        return studentService.updateStudent(id, studentDto.toEntity()).map(StudentDto::from);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteStudent(@PathVariable Long id) {
+        return studentService.deleteStudent(id);
+    }
+}
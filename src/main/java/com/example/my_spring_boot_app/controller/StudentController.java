@@ -1,16 +1,41 @@
 package com.example.my_spring_boot_app.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import com.example.my_spring_boot_app.config.ChangeFeedProperties;
+import com.example.my_spring_boot_app.dto.BulkImportResult;
+import com.example.my_spring_boot_app.dto.StudentChange;
 import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.dto.StudentPatchDto;
 import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.service.StudentChangeFeed;
+import com.example.my_spring_boot_app.service.StudentImportService;
 import com.example.my_spring_boot_app.service.StudentService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 
 
 @Tags({@Tag(name = "Student Operations", description = "Operations related to students")})
@@ -21,17 +46,90 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeFeedProperties changeFeedProperties;
+
     // Define endpoints for student operations here
     
     
     @GetMapping
-    public List<Student> getAllStudents() {
-        return studentService.getAllStudents();
+    public ResponseEntity<List<StudentDto>> getAllStudents(
+        @Parameter(description = "Return students with an id greater than this one (keyset cursor)")
+        @RequestParam(required = false) Long after,
+        @Parameter(description = "Page size, capped at " + ListingSupport.MAX_PAGE_SIZE)
+        @RequestParam(required = false) Integer limit) {
+        // Both come out of the list cache; with a matching If-None-Match the ETag turns this into a 304 unserialized
+        if (after == null && limit == null) {
+            // No paging requested: keep the original full-list behaviour
+            List<StudentDto> students = studentService.getAllStudents();
+            return ResponseEntity.ok().eTag(ETags.ofList(students, StudentDto::id, StudentDto::version)).body(students);
+        }
+        int pageSize = ListingSupport.pageSize(limit);
+        List<StudentDto> page = studentService.getStudentsAfter(after, pageSize);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList(page, StudentDto::id, StudentDto::version))
+                .headers(ListingSupport.nextPageLink(page, pageSize, StudentDto::id))
+                .body(page);
+    }
+
+    // Opt-in streaming mode: rows go out as they come off the JDBC cursor
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        StreamingResponseBody body = ListingSupport.jsonArray(objectMapper, studentService::streamAllStudents);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Change feed instead of polling the list: creates, updates and deletes as they commit. The connection is
+    // held open without a thread; after a disconnect, Last-Event-ID (sent by EventSource on its own) resumes it
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<StudentChange>> streamChanges(
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+        @Parameter(description = "Resume after this offset, for clients that can't send Last-Event-ID")
+        @RequestParam(required = false) Long after) {
+        Sinks.Empty<Void> done = Sinks.empty();
+        Flux<ServerSentEvent<StudentChange>> changes = changeFeed.changes(lastEventId != null ? lastEventId : after)
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(Long.toString(change.offset()))
+                        .event(change.type().name().toLowerCase(Locale.ROOT))
+                        .build())
+                .doFinally(signal -> done.tryEmitEmpty());
+        // Dropped rather than queued while the client isn't reading: the feed's buffer decides when it's too slow
+        Duration heartbeat = changeFeedProperties.getHeartbeat();
+        Flux<ServerSentEvent<StudentChange>> heartbeats = Flux.interval(heartbeat, heartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<StudentChange>builder().comment("").build())
+                .takeUntilOther(done.asMono());
+        // Prefetch 1: no second buffer of changes in front of the feed's own
+        return Flux.merge(1, changes, heartbeats);
+    }
+
+    // The same feed as newline-delimited JSON; resume with ?after= and the last offset received
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StudentChange> streamChangesNdjson(@RequestParam(required = false) Long after) {
+        return changeFeed.changes(after);
     }
 
     @GetMapping("/{id}")
-    public Student getStudentById(@PathVariable Long id) {
-        return studentService.getStudentById(id);
+    public ResponseEntity<StudentDto> getStudentById(@PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Still current: answered from the version alone
+            String current = ETags.of(studentService.getStudentVersion(id));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        StudentDto student = studentService.getStudentById(id);
+        return ResponseEntity.ok().eTag(student != null ? ETags.of(student.version()) : null).body(student);
     }
 
     // @PostMapping
@@ -39,32 +137,54 @@ public class StudentController {
     //     return studentService.createStudent(student);
     // }
 
-    @PostMapping
-    public Student createStudent(@RequestBody StudentCreateDto studentDto) {
-        // Convert the DTO to a JPA entity
-        Student student = new Student();
-        student.setName(studentDto.getName());
-        student.setEmail(studentDto.getEmail());
-        student.setPhone(studentDto.getPhone());
-        student.setCourse(studentDto.getCourse());
+    // POST is in CreateController, or WriteBehindCreateController with write-behind.enabled=true
 
-        return studentService.createStudent(student);
+    // Bulk import: the body is streamed and written in batched transactions, failed rows are reported individually
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult importStudents(InputStream body) throws IOException {
+        return studentImportService.importJson(body);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkImportResult importStudentsNdjson(InputStream body) throws IOException {
+        return studentImportService.importNdjson(body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkImportResult importStudentsCsv(InputStream body) throws IOException {
+        return studentImportService.importCsv(body);
+    }
+
+    // With If-Match (the ETag from a GET) the update only goes through if nobody has changed the student since
     @PutMapping("/{id}")
-    public Student updateStudent(@PathVariable Long id, @RequestBody StudentCreateDto studentDto) {
-        // Convert the DTO to a JPA entity
-        Student student = new Student();
-        student.setName(studentDto.getName());
-        student.setEmail(studentDto.getEmail());
-        student.setPhone(studentDto.getPhone());
-        student.setCourse(studentDto.getCourse());
-
-        return studentService.updateStudent(id, student);
+    public ResponseEntity<StudentDto> updateStudent(@PathVariable Long id, @RequestBody StudentCreateDto studentDto,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        Student student = studentDto.toEntity();
+        student.setVersion(expectedVersion);
+        StudentDto updated = ETags.ifMatch(expectedVersion, () -> studentService.updateStudent(id, student));
+        return ResponseEntity.ok().eTag(ETags.of(updated.version())).body(updated);
+    }
+
+    // Only the fields present in the body change; pass "version" to reject the write if someone got there first.
+    // A body with no fields is turned away: it would bump the version and announce a change that didn't happen.
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patchStudent(@PathVariable Long id, @RequestBody StudentPatchDto patch) {
+        Map<String, Object> fields = patch.changedFields();
+        if (fields.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to change: no field given");
+        }
+        studentService.patchStudent(id, fields, patch.getVersion());
     }
 
     @DeleteMapping("/{id}")
-    public void deleteStudent(@PathVariable Long id) {
-        studentService.deleteStudent(id);
+    public void deleteStudent(@PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        ETags.ifMatch(expectedVersion, () -> {
+            studentService.deleteStudent(id, expectedVersion);
+            return null;
+        });
     }
 }
@@ -0,0 +1,42 @@
+package com.example.my_spring_boot_app.controller;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.example.my_spring_boot_app.dto.BookCreateDto;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.service.WriteBehindService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /api/students and /api/books with {@code write-behind.enabled=true}, in place of CreateController: the
+ * create is queued and committed together with others, and the response (with the new id) goes out once that
+ * commit is done, or 429 when too many are already waiting.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(prefix = "write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindCreateController {
+
+    @Autowired
+    private WriteBehindService writeBehindService;
+
+    @Tag(name = "Student Operations")
+    @PostMapping("/students")
+    public CompletableFuture<StudentDto> createStudent(@RequestBody StudentCreateDto studentDto) {
+        return writeBehindService.createStudent(studentDto);
+    }
+
+    @Tag(name = "Book Management")
+    @PostMapping("/books")
+    public CompletableFuture<BookDto> createBook(@RequestBody BookCreateDto bookDto) {
+        return writeBehindService.createBook(bookDto);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.my_spring_boot_app.dto;
 
+import com.example.my_spring_boot_app.model.Book;
+
 public class BookCreateDto {
 
     private String title;
@@ -27,4 +29,12 @@ public class BookCreateDto {
     public void setAuthor(String author) {
         this.author = author;
     }
+
+    // Convert the DTO to a new (unsaved) JPA entity
+    public Book toEntity() {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
 }
\ No newline at end of file
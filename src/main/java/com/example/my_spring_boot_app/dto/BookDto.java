@@ -0,0 +1,27 @@
+package com.example.my_spring_boot_app.dto;
+
+import com.example.my_spring_boot_app.model.Book;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// What the API returns for a book; selected straight from the table, no managed entity involved
+public record BookDto(
+
+        @Schema(description = "Book id", example = "42")
+        Long id,
+
+        @Schema(description = "Book title", example = "The Hobbit")
+        String title,
+
+        @Schema(description = "Book author", example = "J. R. R. Tolkien")
+        String author,
+
+        @Schema(description = "Row version, changes on every update", example = "0")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long version) {
+
+    public static BookDto from(Book book) {
+        return new BookDto(book.getId(), book.getTitle(), book.getAuthor(), book.getVersion());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.my_spring_boot_app.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One book search result, served from the search index without touching the database
+@Getter
+@AllArgsConstructor
+public class BookSearchHit {
+
+    @Schema(description = "Book id", example = "42")
+    private Long id;
+
+    @Schema(description = "Book title", example = "Harry Potter and the Philosopher's Stone")
+    private String title;
+
+    @Schema(description = "Book author", example = "J. K. Rowling")
+    private String author;
+
+    @Schema(description = "Relevance, higher is better: trigram similarity plus a bonus for prefix and substring matches", example = "1.5")
+    private double score;
+}
@@ -0,0 +1,36 @@
+package com.example.my_spring_boot_app.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of a bulk import: rows that failed are reported individually, the rest are committed
+@Getter
+@AllArgsConstructor
+public class BulkImportResult {
+
+    @Schema(description = "Number of rows read from the upload", example = "1000")
+    private int received;
+
+    @Schema(description = "Number of rows written to the database", example = "998")
+    private int imported;
+
+    @Schema(description = "Number of rows that were rejected", example = "2")
+    private int failed;
+
+    @Schema(description = "Per-row errors (capped, see 'failed' for the full count)")
+    private List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+
+        @Schema(description = "1-based row (JSON array element, NDJSON/CSV line) the error refers to", example = "42")
+        private int row;
+
+        @Schema(description = "Why the row was rejected", example = "name is required")
+        private String message;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.my_spring_boot_app.dto;
+
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One line of the batch profile lookup stream; failures are reported inline instead of failing the batch
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfileLookupResult {
+
+    public enum Status { FOUND, NOT_FOUND, ERROR }
+
+    @Schema(description = "The username as it was requested", example = "sakshi_raghu_1c_")
+    private String username;
+
+    @Schema(description = "Outcome of the lookup", example = "FOUND")
+    private Status status;
+
+    @Schema(description = "The profile, present when status is FOUND")
+    private InstagramProfile.User profile;
+
+    @Schema(description = "What went wrong, present when status is ERROR", example = "Upstream returned 503 SERVICE_UNAVAILABLE")
+    private String error;
+
+    public static ProfileLookupResult found(String username, InstagramProfile.User profile) {
+        return new ProfileLookupResult(username, Status.FOUND, profile, null);
+    }
+
+    public static ProfileLookupResult notFound(String username) {
+        return new ProfileLookupResult(username, Status.NOT_FOUND, null, null);
+    }
+
+    public static ProfileLookupResult error(String username, String error) {
+        return new ProfileLookupResult(username, Status.ERROR, null, error);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.my_spring_boot_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// One entry of the student change feed (GET /api/students/changes)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StudentChange(
+
+        @Schema(description = "Position in the feed; pass it back as Last-Event-ID (or ?after=) to resume after this change", example = "1760700000000001")
+        long offset,
+
+        @Schema(description = "What happened. RESET: changes were missed, re-read the student list")
+        Type type,
+
+        @Schema(description = "Id of the student that changed", example = "42")
+        Long id,
+
+        @Schema(description = "The student as written, for creates and full updates; absent for patches and deletes")
+        StudentDto student) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RESET
+    }
+}
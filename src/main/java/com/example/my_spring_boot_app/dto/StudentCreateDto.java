@@ -1,5 +1,7 @@
 package com.example.my_spring_boot_app.dto;
 
+import com.example.my_spring_boot_app.model.Student;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
 // No Jakarta Persistence annotations needed here
@@ -50,4 +52,14 @@ public class StudentCreateDto {
     public void setCourse(String course) {
         this.course = course;
     }
+
+    // Convert the DTO to a new (unsaved) JPA entity
+    public Student toEntity() {
+        Student student = new Student();
+        student.setName(name);
+        student.setEmail(email);
+        student.setPhone(phone);
+        student.setCourse(course);
+        return student;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.my_spring_boot_app.dto;
+
+import com.example.my_spring_boot_app.model.Student;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// What the API returns for a student. Reads select straight into it (see StudentRepository), so list
+// and detail calls never create managed entities; it is immutable, so cached copies can be shared.
+public record StudentDto(
+
+        @Schema(description = "Student id", example = "42")
+        Long id,
+
+        @Schema(description = "The student's full name", example = "John Doe")
+        String name,
+
+        @Schema(description = "The student's email address", example = "john.doe@example.com")
+        String email,
+
+        @Schema(description = "The student's phone number", example = "+1234567890")
+        String phone,
+
+        @Schema(description = "The course the student is enrolled in", example = "Computer Science")
+        String course,
+
+        @Schema(description = "Row version, changes on every update", example = "3")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long version) {
+
+    public static StudentDto from(Student student) {
+        return new StudentDto(student.getId(), student.getName(), student.getEmail(), student.getPhone(),
+                student.getCourse(), student.getVersion());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.my_spring_boot_app.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// Partial update: fields left out (or null) keep their current value
+public class StudentPatchDto {
+
+    @Schema(description = "The student's full name", example = "John Doe")
+    private String name;
+
+    @Schema(description = "The student's email address", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "The student's phone number", example = "+1234567890")
+    private String phone;
+
+    @Schema(description = "The course the student is enrolled in", example = "Computer Science")
+    private String course;
+
+    @Schema(description = "Version the change is based on; the update is rejected with 409 if the row has moved on", example = "3")
+    private Long version;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getCourse() {
+        return course;
+    }
+
+    public void setCourse(String course) {
+        this.course = course;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    // Entity attribute -> new value, for the fields the client actually sent
+    public Map<String, Object> changedFields() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (name != null) {
+            changes.put("name", name);
+        }
+        if (email != null) {
+            changes.put("email", email);
+        }
+        if (phone != null) {
+            changes.put("phone", phone);
+        }
+        if (course != null) {
+            changes.put("course", course);
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.my_spring_boot_app.logging;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.my_spring_boot_app.config.RequestLoggingProperties;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives every request a correlation id (MDC {@value #REQUEST_ID_KEY}, echoed in the response header), decides
+ * whether its DEBUG output is kept (see {@link SampledDebugTurboFilter}) and writes requests slower than the
+ * threshold to the {@code slow.request} logger. Async requests (Mono, streamed bodies) are timed until they
+ * complete, not until the first dispatch returns, and keep the same id and sampling decision on the async
+ * dispatch that writes their response.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_KEY = "requestId";
+    public static final String SAMPLED_KEY = "debugSampled";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("slow.request");
+
+    private static final String CONTEXT_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".context";
+
+    private final RequestLoggingProperties properties;
+
+    public RequestLoggingFilter(RequestLoggingProperties properties) {
+        this.properties = properties;
+    }
+
+    // Async requests come back through here on a container thread of their own to write the response
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // An async dispatch carries on with what the first dispatch decided, so a request logs under one id
+        boolean asyncDispatch = isAsyncDispatch(request);
+        LogContext context = asyncDispatch ? (LogContext) request.getAttribute(CONTEXT_ATTRIBUTE) : null;
+        if (context == null) {
+            context = new LogContext(requestId(request), sampled(request), System.nanoTime());
+            request.setAttribute(CONTEXT_ATTRIBUTE, context);
+            response.setHeader(properties.getCorrelationHeader(), context.requestId());
+        }
+        MDC.put(REQUEST_ID_KEY, context.requestId());
+        MDC.put(SAMPLED_KEY, Boolean.toString(context.sampled()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(SAMPLED_KEY);
+            // The listener added on the first dispatch times the whole request
+            if (!asyncDispatch) {
+                timeRequest(request, response, context);
+            }
+        }
+    }
+
+    private void timeRequest(HttpServletRequest request, HttpServletResponse response, LogContext context) {
+        if (!request.isAsyncStarted()) {
+            logIfSlow(request, response, context.requestId(), context.start());
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                logIfSlow(request, response, context.requestId(), context.start());
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            // Listeners are dropped when an async dispatch starts async processing again
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                event.getAsyncContext().addListener(this);
+            }
+        });
+    }
+
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, String requestId, long start) {
+        long threshold = properties.getSlowRequestThreshold().toNanos();
+        long elapsed = System.nanoTime() - start;
+        if (threshold <= 0 || elapsed < threshold || isEventStream(response)) {
+            return;
+        }
+        String query = request.getQueryString();
+        slowLog.atWarn()
+                .addKeyValue(REQUEST_ID_KEY, requestId)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .log("Slow request {} {}{} took {} ms (status {})", request.getMethod(), request.getRequestURI(),
+                        query != null ? "?" + query : "", TimeUnit.NANOSECONDS.toMillis(elapsed), response.getStatus());
+    }
+
+    // Change feeds stay open for as long as the client listens; how long that was says nothing about speed
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && (contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)
+                || contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+    }
+
+    // Only ids that are safe to put in a header and a log line are taken over from the caller
+    private String requestId(HttpServletRequest request) {
+        String incoming = request.getHeader(properties.getCorrelationHeader());
+        if (incoming != null && !incoming.isEmpty() && incoming.length() <= 64 && incoming.chars().allMatch(RequestLoggingFilter::isIdChar)) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private boolean sampled(HttpServletRequest request) {
+        if ("true".equalsIgnoreCase(request.getHeader(properties.getDebugHeader()))) {
+            return true;
+        }
+        double rate = properties.getDebugSampleRate();
+        return rate >= 1.0 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static boolean isIdChar(int c) {
+        return c < 128 && (Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.');
+    }
+
+    private record LogContext(String requestId, boolean sampled, long start) {
+    }
+}
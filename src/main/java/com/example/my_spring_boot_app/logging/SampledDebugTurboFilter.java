@@ -0,0 +1,33 @@
+package com.example.my_spring_boot_app.logging;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Drops DEBUG and TRACE from loggers under {@code packagePrefix} unless the current request was picked
+ * for sampling by {@link RequestLoggingFilter}. Runs before the event is built, so an unsampled debug
+ * call costs a level check and an MDC lookup. Outside a request (startup, background work) the
+ * configured logger levels apply as usual.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String packagePrefix = "com.example.my_spring_boot_app";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.levelInt > Level.DEBUG_INT || !logger.getName().startsWith(packagePrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        String sampled = MDC.get(RequestLoggingFilter.SAMPLED_KEY);
+        return sampled == null || sampled.equals("true") ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setPackagePrefix(String packagePrefix) {
+        this.packagePrefix = packagePrefix;
+    }
+}
@@ -1,20 +1,38 @@
 package com.example.my_spring_boot_app.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "books")
+// Mapping for the R2DBC repositories (reactive profile); fully qualified to keep clear of the JPA annotations
+@org.springframework.data.relational.core.mapping.Table("books")
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    // Same pooled sequence strategy as Student, so book inserts batch as well
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String author;
+
+    // Same optimistic-lock column as Student; it's what the ETags of the book endpoints are made of.
+    // The default fills the column for rows that predate it (and for data.sql).
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public String getTitle() {
         return title;
     }
@@ -33,6 +51,12 @@ public class Book {
     public void setAuthor(String author) {
         this.author = author;
     }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 
     // Constructors, getters, and setters
     // You can use a library like Lombok to reduce boilerplate code
@@ -1,18 +1,28 @@
 package com.example.my_spring_boot_app.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "students")
+// Mapping for the R2DBC repositories (reactive profile); fully qualified to keep clear of the JPA annotations
+@org.springframework.data.relational.core.mapping.Table("students")
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    // Pooled sequence instead of IDENTITY: ids are handed out in blocks, so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
     
     @Schema(description = "The student's full name", example = "John Doe")
@@ -27,6 +37,14 @@ public class Student {
     @Schema(description = "The course the student is enrolled in", example = "Computer Science")
     private String course;
 
+    // Optimistic lock, bumped by every update; lets writes go straight to UPDATE ... WHERE version = ?
+    // instead of reading the row first. The default fills the column for rows that predate it.
+    @Schema(description = "Row version, changes on every update", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -60,6 +78,14 @@ public class Student {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getEmail() {
         return email;
     }
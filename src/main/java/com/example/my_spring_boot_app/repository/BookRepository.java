@@ -1,12 +1,44 @@
 package com.example.my_spring_boot_app.repository;
 
 import com.example.my_spring_boot_app.model.Book;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     // Spring Data JPA automatically provides CRUD methods.
     // You can also define custom query methods here, like:
     // List<Book> findByAuthor(String author);
-}
\ No newline at end of file
+
+    // The read methods take the result type: pass a DTO record (e.g. BookDto.class) and Spring Data selects
+    // just its columns into it, skipping the persistence context and Hibernate's dirty-checking snapshots
+    <T> List<T> findAllByOrderByIdAsc(Class<T> type);
+
+    <T> Optional<T> findById(Long id, Class<T> type);
+
+    // Just the version column, for conditional GETs (ETags)
+    @Query("select b.version from Book b where b.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Keyset page: the next `limit` rows after the given id, served straight off the primary key index
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit, Class<T> type);
+
+    // Forward-only cursor over the whole table. Must be consumed (and closed) inside a transaction,
+    // otherwise the PostgreSQL driver ignores the fetch size and buffers every row.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Stream<T> streamAllByOrderByIdAsc(Class<T> type);
+}
@@ -0,0 +1,20 @@
+package com.example.my_spring_boot_app.repository;
+
+import com.example.my_spring_boot_app.model.Book;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+
+// R2DBC counterpart of BookRepository; only instantiated with the "reactive" profile
+@Repository
+public interface ReactiveBookRepository extends R2dbcRepository<Book, Long> {
+
+    // Keyset page, same query as the JPA repository
+    Flux<Book> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Whole table in id order; rows are pulled from the cursor as the subscriber asks for them
+    Flux<Book> findAllByOrderByIdAsc();
+}
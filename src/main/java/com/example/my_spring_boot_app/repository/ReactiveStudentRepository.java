@@ -0,0 +1,28 @@
+package com.example.my_spring_boot_app.repository;
+
+import com.example.my_spring_boot_app.model.Student;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC counterpart of StudentRepository; only instantiated with the "reactive" profile
+@Repository
+public interface ReactiveStudentRepository extends R2dbcRepository<Student, Long> {
+
+    // Keyset page, same query as the JPA repository
+    Flux<Student> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Whole table in id order; rows are pulled from the cursor as the subscriber asks for them
+    Flux<Student> findAllByOrderByIdAsc();
+
+    // Full replacement in one statement, same as StudentService.updateStudent; returns the rows updated
+    @Modifying
+    @Query("UPDATE students SET name = :name, email = :email, phone = :phone, course = :course, version = version + 1 WHERE id = :id")
+    Mono<Integer> updateById(Long id, String name, String email, String phone, String course);
+}
@@ -1,8 +1,19 @@
-
 package com.example.my_spring_boot_app.repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 import com.example.my_spring_boot_app.model.Student;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -10,4 +21,35 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     // Spring Data JPA automatically provides CRUD methods.
     // You can also define custom query methods here, like:
     // List<Student> findByLastName(String lastName);
-}
\ No newline at end of file
+
+    // The read methods take the result type: pass a DTO record (e.g. StudentDto.class) and Spring Data selects
+    // just its columns into it, skipping the persistence context and Hibernate's dirty-checking snapshots
+    <T> List<T> findAllByOrderByIdAsc(Class<T> type);
+
+    <T> Optional<T> findById(Long id, Class<T> type);
+
+    // Just the version column, for conditional GETs (ETags)
+    @Query("select s.version from Student s where s.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Single DELETE (deleteById() would load the entity first); returns the rows removed, 0 if there was none
+    @Modifying
+    @Query("delete from Student s where s.id = :id")
+    int deleteRowById(Long id);
+
+    // Conditional delete (If-Match): removes the row only while it still has the given version
+    @Modifying
+    @Query("delete from Student s where s.id = :id and s.version = :version")
+    int deleteByIdAndVersion(Long id, Long version);
+
+    // Keyset page: the next `limit` rows after the given id, served straight off the primary key index
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit, Class<T> type);
+
+    // Forward-only cursor over the whole table. Must be consumed (and closed) inside a transaction,
+    // otherwise the PostgreSQL driver ignores the fetch size and buffers every row.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Stream<T> streamAllByOrderByIdAsc(Class<T> type);
+}
@@ -0,0 +1,85 @@
+package com.example.my_spring_boot_app.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit for calls to one upstream.
+ * The limit grows by one per limit's worth of fast successes (additive increase). It shrinks by
+ * {@code backoffRatio} whenever a call is dropped or comes back slower than the latency threshold
+ * (multiplicative decrease). Callers that find the limit reached are turned away instead of queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, long latencyThresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot if one is free. Every successful call must be paired with exactly one
+     * of {@link #onSuccess}, {@link #onDropped} or {@link #onIgnore}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else {
+            increase(inFlightBeforeRelease);
+        }
+    }
+
+    // Timeout, connection failure or an explicit overload answer (429/5xx) from the upstream
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    // Call was cancelled by our side; it says nothing about the upstream's health
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase(int inFlightAtCompletion) {
+        // Only probe upward when the current limit is actually being used
+        if (inFlightAtCompletion * 2 < limit) {
+            return;
+        }
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
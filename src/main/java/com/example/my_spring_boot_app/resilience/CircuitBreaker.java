@@ -0,0 +1,114 @@
+package com.example.my_spring_boot_app.resilience;
+
+/**
+ * Count-based circuit breaker. It opens when the failure rate over the last {@code windowSize}
+ * calls reaches the threshold, and then rejects calls outright for {@code openNanos}.
+ * After that a few trial calls are let through (half-open). If they all succeed the breaker
+ * closes again; any failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final int halfOpenCalls;
+    private final long openNanos;
+
+    // Ring buffer of the most recent outcomes while closed (true = failure)
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls,
+                          int halfOpenCalls, long openNanos) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.halfOpenCalls = halfOpenCalls;
+        this.openNanos = openNanos;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onError() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    // The permitted call never produced an outcome (cancelled); hand a half-open trial slot back
+    public synchronized void onIgnore() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.my_spring_boot_app.resilience;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient filter that puts every exchange behind a circuit breaker and an adaptive concurrency
+ * limit, bounds it with a timeout, and retries idempotent requests on transient failures with
+ * jittered exponential backoff (within a {@link RetryBudget}).
+ *
+ * <p>Rejections by the breaker or the limiter surface as {@link UpstreamUnavailableException}.
+ * When retries run out, the last response (or error) is handed back unchanged, so callers using
+ * {@code retrieve()} still see the usual {@code WebClientResponseException}.
+ */
+public class ResilientExchangeFilter implements ExchangeFilterFunction {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private static final Set<HttpStatus> RETRYABLE_STATUSES =
+            Set.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final Duration callTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    public ResilientExchangeFilter(AdaptiveConcurrencyLimiter limiter, CircuitBreaker circuitBreaker,
+                                   RetryBudget retryBudget, Duration callTimeout,
+                                   int maxRetries, Duration retryBackoff) {
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.retryBudget = retryBudget;
+        this.callTimeout = callTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            retryBudget.onAttempt();
+            return attempt(request, next, 0);
+        });
+    }
+
+    private Mono<ClientResponse> attempt(ClientRequest request, ExchangeFunction next, int attempt) {
+        // materialize() lets a response and an error be inspected in one place, so a nested
+        // retry's outcome is passed straight through instead of being retried again here
+        return guardedExchange(request, next).materialize().flatMap(signal -> {
+            if (signal.isOnNext()) {
+                ClientResponse response = signal.get();
+                if (RETRYABLE_STATUSES.contains(HttpStatus.resolve(response.statusCode().value()))
+                        && mayRetry(request, attempt)) {
+                    return response.releaseBody()
+                            .then(backoff(attempt))
+                            .then(attempt(request, next, attempt + 1));
+                }
+                return Mono.just(response);
+            }
+            if (signal.isOnError()) {
+                Throwable error = signal.getThrowable();
+                if (isTransient(error) && mayRetry(request, attempt)) {
+                    return backoff(attempt).then(attempt(request, next, attempt + 1));
+                }
+                return Mono.error(error);
+            }
+            return Mono.empty();
+        });
+    }
+
+    private Mono<ClientResponse> guardedExchange(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new UpstreamUnavailableException(
+                        "Circuit breaker for " + request.url().getHost() + " is open"));
+            }
+            if (!limiter.tryAcquire()) {
+                circuitBreaker.onIgnore();
+                return Mono.error(new UpstreamUnavailableException(
+                        "Concurrency limit of " + limiter.getLimit() + " reached for " + request.url().getHost()));
+            }
+            Outcome outcome = new Outcome();
+            return next.exchange(request)
+                    .timeout(callTimeout)
+                    .doOnNext(response -> outcome.response(response.statusCode()))
+                    .doOnError(error -> outcome.failed())
+                    .doOnCancel(outcome::cancelled);
+        });
+    }
+
+    private boolean mayRetry(ClientRequest request, int attempt) {
+        return attempt < maxRetries
+                && IDEMPOTENT_METHODS.contains(request.method())
+                && retryBudget.tryRetry();
+    }
+
+    // Failures worth another try; our own breaker/limiter rejections are deliberately not among them
+    private static boolean isTransient(Throwable error) {
+        return error instanceof TimeoutException
+                || error instanceof WebClientRequestException
+                || error instanceof IOException;
+    }
+
+    // "Full jitter": a random delay up to base * 2^attempt, so retries from many callers spread out
+    private Mono<Long> backoff(int attempt) {
+        long ceiling = retryBackoff.toNanos() << Math.min(attempt, 10);
+        return Mono.delay(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+    }
+
+    // Reports a single exchange to the limiter and breaker exactly once, whichever way it ends
+    private final class Outcome {
+
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        void response(HttpStatusCode status) {
+            if (!reported.compareAndSet(false, true)) {
+                return;
+            }
+            if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value() || status.is5xxServerError()) {
+                limiter.onDropped();
+                circuitBreaker.onError();
+            } else {
+                limiter.onSuccess(System.nanoTime() - startNanos);
+                circuitBreaker.onSuccess();
+            }
+        }
+
+        void failed() {
+            if (reported.compareAndSet(false, true)) {
+                limiter.onDropped();
+                circuitBreaker.onError();
+            }
+        }
+
+        void cancelled() {
+            if (reported.compareAndSet(false, true)) {
+                limiter.onIgnore();
+                circuitBreaker.onIgnore();
+            }
+        }
+    }
+}
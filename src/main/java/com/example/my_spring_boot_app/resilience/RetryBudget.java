@@ -0,0 +1,31 @@
+package com.example.my_spring_boot_app.resilience;
+
+/**
+ * Caps retries at a fraction of first attempts, so a struggling upstream doesn't get hit
+ * with extra load from retries. Every first attempt deposits {@code ratio} tokens and every
+ * retry spends one; the balance is capped at {@code maxTokens}.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onAttempt() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
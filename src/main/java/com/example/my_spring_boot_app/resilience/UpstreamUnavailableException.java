@@ -0,0 +1,12 @@
+package com.example.my_spring_boot_app.resilience;
+
+/**
+ * Thrown instead of calling an upstream that is known to be unhealthy or already saturated,
+ * so the caller fails fast rather than queueing behind it.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.my_spring_boot_app.security;
+
+import java.util.Collection;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import io.jsonwebtoken.Claims;
+
+// A verified token: the subject is the principal, the claims are there for anything that needs more.
+// The token itself isn't kept, since the same instance is cached and shared by every request carrying it.
+public class JwtAuthentication extends AbstractAuthenticationToken {
+
+    private final Claims claims;
+
+    public JwtAuthentication(Claims claims, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.claims = claims;
+        super.setAuthenticated(true);
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        throw new IllegalArgumentException("A JWT authentication can't change its authenticated state");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.my_spring_boot_app.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <jwt>} (see {@link JwtAuthenticator}).
+ * Requests without a bearer token pass through unauthenticated and are left to the authorization rules;
+ * a token that doesn't check out ends the request with a 401 right here.
+ * <p>
+ * The security context is kept in a request attribute only, so async dispatches (Flux, CompletableFuture)
+ * see it too and no HTTP session is ever created.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtAuthenticator authenticator;
+    private final AuthenticationEntryPoint entryPoint;
+    private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+    public JwtAuthenticationFilter(JwtAuthenticator authenticator, AuthenticationEntryPoint entryPoint) {
+        this.authenticator = authenticator;
+        this.entryPoint = entryPoint;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            SecurityContext context = contextHolder.createEmptyContext();
+            context.setAuthentication(authenticator.authenticate(header.substring(BEARER.length()).trim()));
+            contextHolder.setContext(context);
+            contextRepository.saveContext(context, request, response);
+        } catch (JwtException | IllegalArgumentException e) {
+            contextHolder.clearContext();
+            logger.debug("Rejected bearer token: " + e.getMessage());
+            entryPoint.commence(request, response, new BadCredentialsException("Invalid bearer token", e));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.my_spring_boot_app.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.example.my_spring_boot_app.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Turns a bearer token into an {@link Authentication}. The signature and claims are checked once per token;
+ * after that the token's SHA-256 finds the ready-made Authentication in a cache, so a request with a token
+ * seen before costs a hash and a lookup. An entry lives until the token's exp (tokens without one are
+ * refused) and at most {@code jwt.cache-ttl}; entries verified with a key that has since been retired
+ * are dropped straight away. Rejected tokens are never cached.
+ * <p>
+ * Authorities come from the "scope"/"scp" claims (SCOPE_x) and "roles" (ROLE_x).
+ */
+public class JwtAuthenticator implements MeterBinder {
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, Verified> verified;
+
+    public JwtAuthenticator(JwtProperties properties, JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        JwtParserBuilder builder = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .setAllowedClockSkewSeconds(properties.getClockSkew().toSeconds());
+        if (properties.getIssuer() != null) {
+            builder.requireIssuer(properties.getIssuer());
+        }
+        if (properties.getAudience() != null) {
+            builder.requireAudience(properties.getAudience());
+        }
+        this.parser = builder.build();
+        long maxTtlNanos = properties.getCacheTtl().toNanos();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfter(Expiry.creating((ByteBuffer hash, Verified token) -> Duration.ofNanos(Math.max(0,
+                        Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(token.expiresAtMillis() - System.currentTimeMillis()))))))
+                .recordStats()
+                .build();
+        keyRing.onKeysRetired(this::forgetTokensOf);
+    }
+
+    // Throws JwtException (or IllegalArgumentException for a blank token) when the token isn't acceptable
+    public Authentication authenticate(String token) {
+        ByteBuffer hash = sha256(token);
+        Verified cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            return cached.authentication();
+        }
+        long keysVersion = keyRing.getVersion();
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        if (claims.getExpiration() == null) {
+            throw new UnsupportedJwtException("Token has no expiry (exp)");
+        }
+        Authentication authentication = new JwtAuthentication(claims, authorities(claims));
+        verified.put(hash, new Verified(jws.getHeader().getKeyId(), claims.getExpiration().getTime(), authentication));
+        if (keyRing.getVersion() != keysVersion) {
+            // The keys changed while this one was being verified, possibly retiring the key it was checked with
+            verified.invalidate(hash);
+        }
+        return authentication;
+    }
+
+    public long getCachedTokens() {
+        return verified.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same tag keys as the other caches' meters (see InstagramService)
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt.tokens", "cache.manager", "jwt", "name", "jwt.tokens");
+    }
+
+    private void forgetTokensOf(Set<String> retiredKeyIds) {
+        // A token without a kid was verified with whatever the only key was at the time; drop those too
+        verified.asMap().values().removeIf(token -> token.keyId() == null || retiredKeyIds.contains(token.keyId()));
+    }
+
+    private static Collection<GrantedAuthority> authorities(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String claim : List.of("scope", "scp")) {
+            for (String scope : values(claims.get(claim))) {
+                authorities.add(new SimpleGrantedAuthority("SCOPE_" + scope));
+            }
+        }
+        for (String role : values(claims.get("roles"))) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        return authorities;
+    }
+
+    // Space-separated string (RFC 8693 "scope") or a JSON array
+    private static List<String> values(Object claim) {
+        if (claim instanceof String text) {
+            return text.isBlank() ? List.of() : List.of(text.trim().split("\\s+"));
+        }
+        if (claim instanceof Collection<?> items) {
+            return items.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+
+    private static ByteBuffer sha256(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Verified(String keyId, long expiresAtMillis, Authentication authentication) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.my_spring_boot_app.security;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.example.my_spring_boot_app.config.JwtProperties;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The keys tokens are verified with, by key id. All of them are parsed up front, so looking one up while
+ * verifying is a map read. The set is replaced as a whole, atomically: from {@code jwt.keys} plus
+ * {@code jwt.key-file} at startup, again whenever the key file changes, or through {@link #replaceKeys}.
+ * A key file that can't be read or parsed is logged and the keys in use stay as they are.
+ */
+@Slf4j
+public class JwtKeyRing extends SigningKeyResolverAdapter implements AutoCloseable {
+
+    private final Map<String, String> configured;
+    private final Path keyFile;
+    private final List<Consumer<Set<String>>> retiredListeners = new CopyOnWriteArrayList<>();
+    private volatile Map<String, Key> keys;
+    // Bumped on every replacement
+    private volatile long version;
+    private volatile FileTime keyFileModified;
+    private ScheduledExecutorService refresher;
+
+    public JwtKeyRing(JwtProperties properties) {
+        this.configured = Map.copyOf(properties.getKeys());
+        this.keyFile = properties.getKeyFile();
+        Map<String, String> material = new LinkedHashMap<>(configured);
+        if (keyFile != null) {
+            keyFileModified = lastModified();
+            material.putAll(readKeyFile());
+        }
+        this.keys = parse(material);
+        if (keys.isEmpty()) {
+            log.warn("No JWT keys configured (jwt.keys / jwt.key-file): every API request will be refused");
+        }
+        if (keyFile != null) {
+            long interval = properties.getKeyRefresh().toMillis();
+            refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("jwt-key-refresh").daemon().factory());
+            refresher.scheduleWithFixedDelay(this::refreshIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        Map<String, Key> current = keys;
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (current.size() == 1) {
+                return current.values().iterator().next();
+            }
+            throw new UnsupportedJwtException("Token has no key id (kid)");
+        }
+        Key key = current.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown key id: " + keyId);
+        }
+        return key;
+    }
+
+    public Set<String> getKeyIds() {
+        return keys.keySet();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Called with the ids of keys that were dropped, so tokens verified with them can be forgotten
+    public void onKeysRetired(Consumer<Set<String>> listener) {
+        retiredListeners.add(listener);
+    }
+
+    // Replaces every key, jwt.keys included; a bad entry fails the whole replacement
+    public synchronized void replaceKeys(Map<String, String> material) {
+        Map<String, Key> replacement = parse(material);
+        Map<String, Key> previous = keys;
+        keys = replacement;
+        version++;
+        Set<String> retired = previous.keySet().stream()
+                .filter(keyId -> !replacement.containsKey(keyId) || !replacement.get(keyId).equals(previous.get(keyId)))
+                .collect(Collectors.toUnmodifiableSet());
+        log.info("JWT keys now {}", replacement.keySet());
+        if (!retired.isEmpty()) {
+            retiredListeners.forEach(listener -> listener.accept(retired));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private void refreshIfChanged() {
+        try {
+            FileTime modified = lastModified();
+            if (modified == null || modified.equals(keyFileModified)) {
+                return;
+            }
+            Map<String, String> material = new LinkedHashMap<>(configured);
+            material.putAll(readKeyFile());
+            replaceKeys(material);
+            keyFileModified = modified;
+        } catch (RuntimeException e) {
+            log.warn("Could not reload JWT keys from {}, keeping the current ones: {}", keyFile, e.getMessage());
+        }
+    }
+
+    private FileTime lastModified() {
+        try {
+            return Files.getLastModifiedTime(keyFile);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Map<String, String> readKeyFile() {
+        Properties entries = new Properties();
+        try (Reader reader = Files.newBufferedReader(keyFile, StandardCharsets.UTF_8)) {
+            entries.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read JWT key file " + keyFile, e);
+        }
+        Map<String, String> material = new LinkedHashMap<>();
+        entries.stringPropertyNames().forEach(keyId -> material.put(keyId, entries.getProperty(keyId)));
+        return material;
+    }
+
+    private static Map<String, Key> parse(Map<String, String> material) {
+        Map<String, Key> parsed = new LinkedHashMap<>();
+        material.forEach((keyId, value) -> parsed.put(keyId, parseKey(keyId, value.trim())));
+        return Map.copyOf(parsed);
+    }
+
+    static Key parseKey(String keyId, String value) {
+        try {
+            if (value.startsWith("-----BEGIN PUBLIC KEY-----")) {
+                byte[] der = Base64.getMimeDecoder().decode(value
+                        .replace("-----BEGIN PUBLIC KEY-----", "")
+                        .replace("-----END PUBLIC KEY-----", ""));
+                X509EncodedKeySpec spec = new X509EncodedKeySpec(der);
+                try {
+                    return KeyFactory.getInstance("RSA").generatePublic(spec);
+                } catch (GeneralSecurityException notRsa) {
+                    return KeyFactory.getInstance("EC").generatePublic(spec);
+                }
+            }
+            return Keys.hmacShaKeyFor(Base64.getDecoder().decode(value));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Invalid JWT key '" + keyId + "': " + e.getMessage(), e);
+        }
+    }
+}
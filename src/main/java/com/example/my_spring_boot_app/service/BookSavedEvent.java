@@ -0,0 +1,7 @@
+package com.example.my_spring_boot_app.service;
+
+import com.example.my_spring_boot_app.model.Book;
+
+// Published by the book services after every save; keeps derived views such as the search index current
+public record BookSavedEvent(Book book) {
+}
@@ -0,0 +1,269 @@
+package com.example.my_spring_boot_app.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.my_spring_boot_app.dto.BookSearchHit;
+import com.example.my_spring_boot_app.dto.BookDto;
+
+/**
+ * In-memory trigram index over book titles and authors, for prefix, substring and typo-tolerant search.
+ * <p>
+ * Every word is split into trigrams the way PostgreSQL's pg_trgm does it ("  h", " ha", "har", ...,
+ * "ry "), and each trigram maps to a sorted posting list of the books that contain it. A book matches
+ * when it shares at least {@code minSimilarity} of the query's trigrams. Such a book has to appear in
+ * one of the (n - required + 1) rarest lists, so only those are merged to find candidates. Each candidate
+ * is then checked against the other lists with a binary search, so common trigrams are never walked.
+ * <p>
+ * Books are only ever appended. Re-indexing a book gives it a new slot, and the old slot is flagged in
+ * {@link #replaced} and skipped.
+ */
+public class BookSearchIndex {
+
+    // Best first: relevance, then shorter titles (closer to what was typed), then id for a stable order
+    private static final Comparator<Candidate> RANKING = Comparator.comparingDouble(Candidate::score).reversed()
+            .thenComparingInt(Candidate::titleLength)
+            .thenComparingLong(Candidate::id);
+
+    private final double minSimilarity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final BitSet replaced = new BitSet();
+
+    private long[] ids = new long[1024];
+    private String[] titles = new String[1024];
+    private String[] authors = new String[1024];
+    private String[] normalizedTitles = new String[1024];
+    private String[] normalizedAuthors = new String[1024];
+    private int size;
+
+    public BookSearchIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    // Adds the book, or replaces the indexed copy of it
+    public void put(BookDto book) {
+        put(book, true);
+    }
+
+    // Adds the book unless it's already indexed (used by the initial load, so it can't undo a newer save)
+    public void putIfAbsent(BookDto book) {
+        put(book, false);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<BookSearchHit> search(String query, int limit) {
+        String normalized = normalize(query);
+        long[] grams = trigrams(normalized, true);
+        if (grams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        // At least 3 shared trigrams (all of them for very short queries), so a stray "  a" + " ab" isn't a match
+        int required = Math.min(grams.length, Math.max(3, (int) Math.ceil(minSimilarity * grams.length)));
+        String wordPrefix = " " + normalized;
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.getOrDefault(grams[i], Postings.EMPTY);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            int probed = grams.length - required + 1;
+
+            // Worst of the current top `limit` at the head, so it's the one dropped
+            PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            // Walk the rare lists in step (they're sorted), counting how many of them hold each book
+            int[] cursors = new int[probed];
+            while (true) {
+                int slot = Integer.MAX_VALUE;
+                for (int j = 0; j < probed; j++) {
+                    if (cursors[j] < lists[j].size) {
+                        slot = Math.min(slot, lists[j].docs[cursors[j]]);
+                    }
+                }
+                if (slot == Integer.MAX_VALUE) {
+                    break;
+                }
+                int shared = 0;
+                for (int j = 0; j < probed; j++) {
+                    if (cursors[j] < lists[j].size && lists[j].docs[cursors[j]] == slot) {
+                        shared++;
+                        cursors[j]++;
+                    }
+                }
+                if (replaced.get(slot)) {
+                    continue;
+                }
+                // The common trigrams are only looked up for books that can still reach the threshold
+                for (int i = probed; i < lists.length && shared + lists.length - i >= required; i++) {
+                    if (lists[i].contains(slot)) {
+                        shared++;
+                    }
+                }
+                if (shared < required) {
+                    continue;
+                }
+                double similarity = (double) shared / grams.length;
+                // The bonus is at most 1; skip the string checks when even that can't get into the top
+                if (top.size() == limit && similarity + 1.0 < top.peek().score()) {
+                    continue;
+                }
+                top.offer(new Candidate(slot, ids[slot], similarity + bonus(slot, normalized, wordPrefix), titles[slot].length()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Candidate> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            List<BookSearchHit> hits = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                int slot = candidate.slot();
+                hits.add(new BookSearchHit(ids[slot], titles[slot], authors[slot], candidate.score()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(BookDto book, boolean replace) {
+        String title = Objects.toString(book.title(), "");
+        String author = Objects.toString(book.author(), "");
+        String normalizedTitle = normalize(title);
+        String normalizedAuthor = normalize(author);
+        long[] grams = trigrams((normalizedTitle + " " + normalizedAuthor).trim(), false);
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = slots.get(book.id());
+            if (previous != null) {
+                if (!replace) {
+                    return;
+                }
+                replaced.set(previous);
+            }
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                authors = Arrays.copyOf(authors, capacity);
+                normalizedTitles = Arrays.copyOf(normalizedTitles, capacity);
+                normalizedAuthors = Arrays.copyOf(normalizedAuthors, capacity);
+            }
+            int slot = size++;
+            ids[slot] = book.id();
+            titles[slot] = title;
+            authors[slot] = author;
+            normalizedTitles[slot] = normalizedTitle;
+            normalizedAuthors[slot] = normalizedAuthor;
+            slots.put(book.id(), slot);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ranks "starts with what I typed" above "a word starts with it" above "contains it somewhere"
+    private double bonus(int slot, String query, String wordPrefix) {
+        String title = normalizedTitles[slot];
+        String author = normalizedAuthors[slot];
+        if (title.startsWith(query) || author.startsWith(query)) {
+            return 1.0;
+        }
+        if (title.contains(wordPrefix) || author.contains(wordPrefix)) {
+            return 0.5;
+        }
+        if (title.contains(query) || author.contains(query)) {
+            return 0.25;
+        }
+        return 0;
+    }
+
+    // Lower case, letters and digits only, single spaces between words
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int length = out.length();
+        return space && length > 0 ? out.substring(0, length - 1) : out.toString();
+    }
+
+    // Distinct, sorted trigrams of the words in `normalized`. For a query the last word may still be
+    // half typed, so its closing trigram ("ry ") is left out: "harr" then matches "harry" fully.
+    static long[] trigrams(String normalized, boolean lastWordIsPrefix) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        String[] words = normalized.split(" ");
+        long[] grams = new long[normalized.length() + 1];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            String padded = "  " + words[w] + " ";
+            int end = padded.length() - 2;
+            if (lastWordIsPrefix && w == words.length - 1) {
+                end--;
+            }
+            for (int i = 0; i < end; i++) {
+                grams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams, 0, count).sorted().distinct().toArray();
+    }
+
+    private record Candidate(int slot, long id, double score, int titleLength) {
+    }
+
+    // Growable sorted int list; slots are handed out in increasing order, so appending keeps it sorted
+    private static final class Postings {
+
+        static final Postings EMPTY = new Postings();
+
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
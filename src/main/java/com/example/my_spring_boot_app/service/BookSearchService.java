@@ -0,0 +1,60 @@
+package com.example.my_spring_boot_app.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.my_spring_boot_app.config.BookSearchProperties;
+import com.example.my_spring_boot_app.config.ReadReplicaRoutingDataSource;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.BookSearchHit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Book search by title and author, served from a {@link BookSearchIndex} held in memory.
+ * The index is filled from the database once the application is up and then follows every save.
+ */
+@Slf4j
+@Service
+public class BookSearchService {
+
+    private final BookSearchProperties properties;
+
+    private final BookService bookService;
+
+    private final BookSearchIndex index;
+
+    public BookSearchService(BookSearchProperties properties, BookService bookService) {
+        this.properties = properties;
+        this.bookService = bookService;
+        this.index = new BookSearchIndex(properties.getMinSimilarity());
+    }
+
+    public List<BookSearchHit> search(String query, Integer limit) {
+        int pageSize = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        return index.search(query, pageSize);
+    }
+
+    // Searches during the load see the books indexed so far
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.nanoTime();
+        // From the primary, like the caches (see ReadReplicaRoutingDataSource)
+        ReadReplicaRoutingDataSource.fromPrimary(() -> {
+            bookService.streamAllBooks(index::putIfAbsent);
+            return null;
+        });
+        log.info("Indexed {} books for search in {} ms", index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // After commit, so a rolled-back save never becomes searchable; immediately when there's no transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        index.put(BookDto.from(event.book()));
+    }
+}
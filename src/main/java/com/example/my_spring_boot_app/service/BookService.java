@@ -1,10 +1,25 @@
 package com.example.my_spring_boot_app.service;
 
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.dto.BookDto;
 import com.example.my_spring_boot_app.model.Book;
 import com.example.my_spring_boot_app.repository.BookRepository;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class BookService {
@@ -12,16 +27,60 @@ public class BookService {
     @Autowired
     private BookRepository bookRepository;
 
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Reads run in read-only transactions (flush mode MANUAL, read-only connection) and select into BookDto
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOK_LISTS, key = "'all'", sync = true)
+    public List<BookDto> getAllBooks() {
+        return bookRepository.findAllByOrderByIdAsc(BookDto.class);
     }
 
-    public Book getBookById(Long id) {
-        return bookRepository.findById(id)
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOK_LISTS, sync = true)
+    public List<BookDto> getBooksAfter(Long after, int limit) {
+        return bookRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit), BookDto.class);
+    }
+
+    // Rows are projected straight into DTOs, so nothing piles up in the persistence context while streaming
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookDto> action) {
+        try (Stream<BookDto> books = bookRepository.streamAllByOrderByIdAsc(BookDto.class)) {
+            books.forEach(action);
+        }
+    }
+
+    // Not-found throws, so unknown ids are never cached
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOKS, sync = true)
+    public BookDto getBookById(Long id) {
+        return bookRepository.findById(id, BookDto.class)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
     }
 
-    public Book saveBook(Book book) {
-        return bookRepository.save(book);
+    // Just the version, for conditional GETs: the cached copy's if there is one, otherwise a single-column select
+    public Long getBookVersion(Long id) {
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.BOOKS).get(id);
+        if (cached != null) {
+            return ((BookDto) cached.get()).version();
+        }
+        return bookRepository.findVersionById(id).orElse(null);
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.BOOKS, key = "#result.id()"),
+            evict = @CacheEvict(cacheNames = CacheConfig.BOOK_LISTS, allEntries = true))
+    public BookDto saveBook(Book book) {
+        if (book.getId() != null && book.getVersion() == null) {
+            // Overwrite without a version: last write wins, as before books were versioned
+            bookRepository.findVersionById(book.getId()).ifPresent(book::setVersion);
+        }
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookSavedEvent(saved));
+        return BookDto.from(saved);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package com.example.my_spring_boot_app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.config.WriteBehindProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind queue with group commit. Callers hand over a row and get a future; a single writer thread
+ * takes up to {@code batch-size} rows at a time, or whatever has arrived once the oldest row has waited
+ * {@code max-delay}, and writes them in one transaction, so many creates share one commit. Futures complete
+ * only after that transaction has committed, in the order the rows were submitted.
+ * <p>
+ * The queue is a lock-free linked queue bounded by a semaphore of {@code capacity} permits, which are
+ * handed back once a row's batch is done. When the buffer is full a create is refused with 429, or first
+ * waits up to {@code offer-timeout} for room.
+ * <p>
+ * A batch the database rejects is replayed row by row, so one bad row only fails its own future. Whatever
+ * else goes wrong fails that batch's futures; the writer thread carries on with the next one.
+ * {@link #close()} writes everything still queued before it returns.
+ *
+ * @param <T> what callers submit
+ * @param <R> what their futures complete with
+ */
+@Slf4j
+public class GroupCommitBuffer<T, R> implements AutoCloseable {
+
+    private final String name;
+    // Writes the rows in one transaction and returns one result per row, in the same order
+    private final Function<List<T>, List<R>> writer;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final Semaphore capacity;
+    private final Queue<Pending<T, R>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    public GroupCommitBuffer(String name, WriteBehindProperties properties, Function<List<T>, List<R>> writer) {
+        this.name = name;
+        this.writer = writer;
+        this.batchSize = properties.getBatchSize();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        this.capacity = new Semaphore(properties.getCapacity());
+        this.flusher = Thread.ofPlatform().name("write-behind-" + name).daemon().start(this::run);
+    }
+
+    public CompletableFuture<R> submit(T row) {
+        if (closed) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down, " + name + " can't be written");
+        }
+        if (!acquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many " + name + " waiting to be written, try again shortly");
+        }
+        Pending<T, R> pending = new Pending<>(row, System.nanoTime());
+        queue.add(pending);
+        int size = queued.incrementAndGet();
+        // The writer only needs waking for the first row (to start its max-delay clock) and for a full batch
+        if (size == 1 || size == batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return pending.future;
+    }
+
+    // Rows queued but not yet taken by the writer
+    public int getQueued() {
+        return queued.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Only rows that raced with closed being set can still be here
+        Pending<T, R> late;
+        while ((late = queue.poll()) != null) {
+            late.future.completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down, " + name + " can't be written"));
+        }
+    }
+
+    private boolean acquire() {
+        if (offerTimeoutNanos <= 0) {
+            return capacity.tryAcquire();
+        }
+        try {
+            return capacity.tryAcquire(offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run() {
+        List<Pending<T, R>> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Pending<T, R> oldest = queue.peek();
+            if (oldest == null) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+            // Give later rows until max-delay after the oldest one arrived to fill the batch; no waiting once closing
+            long deadline = oldest.queuedAt + maxDelayNanos;
+            long wait;
+            while (!closed && queued.get() < batchSize && (wait = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            Pending<T, R> next;
+            while (batch.size() < batchSize && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            queued.addAndGet(-batch.size());
+            try {
+                write(batch);
+            } catch (Throwable e) {
+                // Anything write() doesn't handle (an Error out of the writer) fails what's left of this
+                // batch, rather than ending the only thread that writes and leaving every later create hanging
+                log.error("Writing a batch of {} {} failed", batch.size(), name, e);
+                for (Pending<T, R> pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            } finally {
+                capacity.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending<T, R>> batch) {
+        try {
+            List<R> results = writer.apply(batch.stream().map(Pending::row).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            log.debug("Batch of {} {} rejected, retrying row by row: {}", batch.size(), name, e.getMessage());
+            for (Pending<T, R> pending : batch) {
+                try {
+                    pending.future.complete(writer.apply(List.of(pending.row)).get(0));
+                } catch (RuntimeException rowError) {
+                    pending.future.completeExceptionally(rowError);
+                }
+            }
+        }
+    }
+
+    private record Pending<T, R>(T row, long queuedAt, CompletableFuture<R> future) {
+
+        Pending(T row, long queuedAt) {
+            this(row, queuedAt, new CompletableFuture<>());
+        }
+    }
+}
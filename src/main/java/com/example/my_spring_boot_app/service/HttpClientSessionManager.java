@@ -1,93 +1,385 @@
 package com.example.my_spring_boot_app.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.ObservationExecChainHandler;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.async.methods.AbstractBinResponseConsumer;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.cookie.BasicCookieStore;
 import org.apache.hc.client5.http.cookie.CookieStore;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Service;
 
+import com.example.my_spring_boot_app.config.HttpClientProperties;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
- * Manages an HTTP session for a single user/client,
- * similar to Python's requests.Session.
+ * Manages HTTP sessions, similar to Python's requests.Session.
  * It handles cookies and connection pooling automatically.
+ * <p>
+ * One blocking and one async (HTTP/2 capable) client share the configured pool limits and timeouts.
+ * Cookies belong to a {@link Session}: the manager's own {@code get}/{@code post} use a shared default
+ * session, and {@link #openSession()} hands out isolated ones, e.g. one per logged-in upstream user.
+ * Every request gets its own {@link HttpClientContext}, so sessions are safe to use from many threads.
+ * <p>
+ * Each attempt is timed as {@code httpcomponents.httpclient.request}, and both pools are published as
+ * {@code httpcomponents.httpclient.pool.*} gauges (tagged {@code httpclient=classic|async}).
  */
 @Service
-public class HttpClientSessionManager {
+public class HttpClientSessionManager implements SmartLifecycle, MeterBinder {
 
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final PoolingAsyncClientConnectionManager asyncConnectionManager;
     private final CloseableHttpClient httpClient;
-    private final HttpClientContext context;
+    private final CloseableHttpAsyncClient asyncClient;
+    private final RequestConfig requestConfig;
+    private final Session defaultSession;
+    private volatile boolean running;
 
-    public HttpClientSessionManager() {
-        // Create a cookie store to manage session cookies
-        CookieStore cookieStore = new BasicCookieStore();
-        
-        // Create a context to hold the cookie store
-        this.context = HttpClientContext.create();
-        this.context.setCookieStore(cookieStore);
+    public HttpClientSessionManager(HttpClientProperties properties) {
+        this(properties, ObservationRegistry.NOOP);
+    }
 
-        // Configure connection pooling for efficiency
-        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create().build();
+    @Autowired
+    public HttpClientSessionManager(HttpClientProperties properties, ObservationRegistry observationRegistry) {
+        // Sits after the retry step, so every attempt is timed on its own
+        ObservationExecChainHandler observation = new ObservationExecChainHandler(observationRegistry);
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                .setSocketTimeout(timeout(properties.getSocketTimeout()))
+                .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                .setTimeToLive(timeValue(properties.getTimeToLive()))
+                .build();
+        this.requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout(properties.getConnectionRequestTimeout()))
+                .build();
 
-        // Build the HTTP client with the cookie store and connection manager
+        // Configure connection pooling for efficiency (the library defaults are only 5 per route, 25 in total)
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
         this.httpClient = HttpClients.custom()
                 .setConnectionManager(connectionManager)
-                .setDefaultCookieStore(cookieStore)
+                .setDefaultRequestConfig(requestConfig)
+                .addExecInterceptorAfter(ChainElement.RETRY.name(), "micrometer", observation)
+                .evictIdleConnections(timeValue(properties.getIdleEviction()))
+                .evictExpiredConnections()
                 .build();
+
+        this.asyncConnectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .setDefaultTlsConfig(TlsConfig.custom().setVersionPolicy(properties.getVersionPolicy()).build())
+                .build();
+        this.asyncClient = HttpAsyncClients.custom()
+                .setConnectionManager(asyncConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setIOReactorConfig(IOReactorConfig.custom().setSoTimeout(timeout(properties.getSocketTimeout())).build())
+                .addExecInterceptorAfter(ChainElement.RETRY.name(), "micrometer", observation)
+                .evictIdleConnections(timeValue(properties.getIdleEviction()))
+                .evictExpiredConnections()
+                .build();
+
+        this.defaultSession = new Session();
     }
 
     /**
-     * Executes an HTTP GET request with the session.
+     * Starts a session with its own cookie store. Connections are still pooled with every other session.
+     */
+    public Session openSession() {
+        return new Session();
+    }
+
+    /**
+     * Executes an HTTP GET request with the default session.
      * @param url The URL to send the GET request to.
      * @return The response body as a String.
      * @throws IOException If an I/O error occurs.
      */
     public String get(String url) throws IOException {
-        ClassicHttpRequest httpGet = ClassicRequestBuilder.get(url).build();
-        return httpClient.execute(httpGet, context, response -> {
-            int status = response.getCode();
-            if (status >= 200 && status < 300) {
-                return EntityUtils.toString(response.getEntity());
-            } else {
-                throw new IOException("Unexpected response status: " + status);
-            }
-        });
+        return defaultSession.get(url);
     }
 
     /**
-     * Executes an HTTP POST request with the session.
+     * Executes an HTTP POST request with the default session.
      * @param url The URL to send the POST request to.
      * @param body The request body as a String.
      * @return The response body as a String.
      * @throws IOException If an I/O error occurs.
      */
     public String post(String url, String body) throws IOException {
-        ClassicHttpRequest httpPost = ClassicRequestBuilder.post(url)
-                .addHeader("Content-Type", "application/json")
-                .setEntity(body)
-                .build();
-        return httpClient.execute(httpPost, context, response -> {
-            int status = response.getCode();
-            if (status >= 200 && status < 300) {
-                return EntityUtils.toString(response.getEntity());
-            } else {
-                throw new IOException("Unexpected response status: " + status);
-            }
-        });
+        return defaultSession.post(url, body);
     }
-    
+
     /**
-     * Closes the underlying HTTP client.
-     * It's good practice to call this when the application shuts down.
-     * @throws IOException If an I/O error occurs.
+     * Leased, pending (waiting for a connection), available and maximum connections of both pools.
      */
-    public void close() throws IOException {
-        httpClient.close();
+    public Map<String, Map<String, Integer>> getPoolStats() {
+        Map<String, Map<String, Integer>> stats = new LinkedHashMap<>();
+        stats.put("classic", describe(connectionManager.getTotalStats()));
+        stats.put("async", describe(asyncConnectionManager.getTotalStats()));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "classic").bindTo(registry);
+        new PoolingHttpClientConnectionManagerMetricsBinder(asyncConnectionManager, "async").bindTo(registry);
+    }
+
+    @Override
+    public void start() {
+        asyncClient.start();
+        running = true;
+    }
+
+    // Let in-flight exchanges finish, then release the pools and the I/O reactor
+    @Override
+    public void stop() {
+        running = false;
+        httpClient.close(CloseMode.GRACEFUL);
+        asyncClient.close(CloseMode.GRACEFUL);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Closes the underlying HTTP clients.
+     * Spring does this on shutdown; only call it when using the manager outside the application context.
+     */
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Reads a response body as it arrives, without buffering it first.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body, ContentType contentType) throws IOException;
+    }
+
+    /**
+     * A cookie jar plus the calls that use it. Thread-safe: the cookie store is synchronized
+     * and each request runs in a context of its own.
+     */
+    public class Session {
+
+        private final CookieStore cookieStore = new BasicCookieStore();
+
+        public CookieStore getCookieStore() {
+            return cookieStore;
+        }
+
+        public String get(String url) throws IOException {
+            return get(url, (body, contentType) -> readString(body, contentType));
+        }
+
+        public String post(String url, String body) throws IOException {
+            ClassicHttpRequest httpPost = ClassicRequestBuilder.post(url)
+                    .setEntity(body, ContentType.APPLICATION_JSON)
+                    .build();
+            return execute(httpPost, (in, contentType) -> readString(in, contentType));
+        }
+
+        /**
+         * GET with streaming consumption: {@code reader} gets the body stream while the response is still arriving.
+         */
+        public <T> T get(String url, BodyReader<T> reader) throws IOException {
+            return execute(ClassicRequestBuilder.get(url).build(), reader);
+        }
+
+        public CompletableFuture<String> getAsync(String url) {
+            return executeAsync(SimpleRequestBuilder.get(url).build());
+        }
+
+        public CompletableFuture<String> postAsync(String url, String body) {
+            return executeAsync(SimpleRequestBuilder.post(url)
+                    .setBody(body, ContentType.APPLICATION_JSON)
+                    .build());
+        }
+
+        /**
+         * Async GET that hands each chunk of the body to {@code sink} as it arrives (on an I/O thread,
+         * so the sink must not block, and the buffer is reused once it returns).
+         * Completes with the number of body bytes received.
+         */
+        public CompletableFuture<Long> streamAsync(String url, Consumer<ByteBuffer> sink) {
+            return executeAsync(SimpleRequestProducer.create(SimpleRequestBuilder.get(url).build()),
+                    new StreamingConsumer(sink));
+        }
+
+        private <T> T execute(ClassicHttpRequest request, BodyReader<T> reader) throws IOException {
+            return httpClient.execute(request, newContext(), response -> {
+                int status = response.getCode();
+                if (status < 200 || status >= 300) {
+                    EntityUtils.consume(response.getEntity());
+                    throw new IOException("Unexpected response status: " + status);
+                }
+                HttpEntity entity = response.getEntity();
+                if (entity == null) {
+                    return reader.read(InputStream.nullInputStream(), null);
+                }
+                try (InputStream body = entity.getContent()) {
+                    return reader.read(body, ContentType.parseLenient(entity.getContentType()));
+                }
+            });
+        }
+
+        private CompletableFuture<String> executeAsync(SimpleHttpRequest request) {
+            return executeAsync(SimpleRequestProducer.create(request), SimpleResponseConsumer.create())
+                    .thenApply(response -> {
+                        if (response.getCode() < 200 || response.getCode() >= 300) {
+                            throw new CompletionException(
+                                    new IOException("Unexpected response status: " + response.getCode()));
+                        }
+                        return response.getBodyText();
+                    });
+        }
+
+        private <T> CompletableFuture<T> executeAsync(AsyncRequestProducer producer,
+                                                  AsyncResponseConsumer<T> consumer) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            asyncClient.execute(producer, consumer, null, newContext(), new FutureCallback<T>() {
+                @Override
+                public void completed(T value) {
+                    result.complete(value);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    result.completeExceptionally(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    result.cancel(false);
+                }
+            });
+            return result;
+        }
+
+        // HttpClientContext is not thread-safe, so never share one between requests
+        private HttpClientContext newContext() {
+            HttpClientContext context = HttpClientContext.create();
+            context.setCookieStore(cookieStore);
+            context.setRequestConfig(requestConfig);
+            return context;
+        }
+    }
+
+    // Pushes body chunks to a sink as they arrive; a non-2xx status fails the call before any data is read
+    private static final class StreamingConsumer extends AbstractBinResponseConsumer<Long> {
+
+        // Receive window handed to the server per round, so a slow sink is not flooded
+        private static final int CAPACITY = 64 * 1024;
+
+        private final Consumer<ByteBuffer> sink;
+        private long received;
+
+        StreamingConsumer(Consumer<ByteBuffer> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        protected void start(HttpResponse response, ContentType contentType) throws IOException {
+            if (response.getCode() < 200 || response.getCode() >= 300) {
+                throw new IOException("Unexpected response status: " + response.getCode());
+            }
+        }
+
+        @Override
+        protected int capacityIncrement() {
+            return CAPACITY;
+        }
+
+        @Override
+        protected void data(ByteBuffer data, boolean endOfStream) {
+            received += data.remaining();
+            // The sink gets a view; the I/O buffer itself must always be drained or the exchange stalls
+            sink.accept(data.slice());
+            data.position(data.limit());
+        }
+
+        @Override
+        protected Long buildResult() {
+            return received;
+        }
+
+        @Override
+        public void releaseResources() {
+        }
+    }
+
+    private static String readString(InputStream body, ContentType contentType) throws IOException {
+        // JSON (the usual payload here) is UTF-8 unless the server says otherwise
+        return new String(body.readAllBytes(),
+                contentType != null ? contentType.getCharset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Integer> describe(PoolStats stats) {
+        Map<String, Integer> description = new LinkedHashMap<>();
+        description.put("leased", stats.getLeased());
+        description.put("pending", stats.getPending());
+        description.put("available", stats.getAvailable());
+        description.put("max", stats.getMax());
+        return description;
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
     }
 }
@@ -1,20 +1,91 @@
 package com.example.my_spring_boot_app.service;
 
+import com.example.my_spring_boot_app.config.InstagramProperties;
+import com.example.my_spring_boot_app.dto.ProfileLookupResult;
 import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.resilience.AdaptiveConcurrencyLimiter;
+import com.example.my_spring_boot_app.resilience.CircuitBreaker;
+import com.example.my_spring_boot_app.resilience.ResilientExchangeFilter;
+import com.example.my_spring_boot_app.resilience.RetryBudget;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Slf4j
 @Service
-public class InstagramService {
+public class InstagramService implements MeterBinder {
 
     private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final InstagramProperties.Cache cacheProperties;
+
+    // Optional.empty() marks a username instagram.com says doesn't exist (negative cache entry)
+    private final AsyncLoadingCache<String, Optional<InstagramProfile>> profileCache;
+    private final AsyncLoadingCache<String, Optional<String>> rawProfileCache;
+
+    public InstagramService(WebClient.Builder webClientBuilder, InstagramProperties properties) {
+        InstagramProperties.Resilience resilience = properties.getResilience();
+        // Bounded pool: when instagram.com stalls, requests wait briefly for a connection and then fail
+        this.connectionProvider = ConnectionProvider.builder("instagram")
+            .maxConnections(resilience.getMaxConnections())
+            .pendingAcquireTimeout(resilience.getPendingAcquireTimeout())
+            // reactor.netty.connection.provider.* gauges (active, idle, pending per remote address)
+            .metrics(true)
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) resilience.getConnectTimeout().toMillis())
+            .responseTimeout(resilience.getCallTimeout());
+        this.limiter = new AdaptiveConcurrencyLimiter(
+            resilience.getLimiter().getInitialLimit(),
+            resilience.getLimiter().getMinLimit(),
+            resilience.getLimiter().getMaxLimit(),
+            resilience.getLimiter().getBackoffRatio(),
+            resilience.getLimiter().getLatencyThreshold().toNanos());
+        this.circuitBreaker = new CircuitBreaker(
+            resilience.getCircuitBreaker().getFailureRateThreshold(),
+            resilience.getCircuitBreaker().getWindowSize(),
+            resilience.getCircuitBreaker().getMinimumCalls(),
+            resilience.getCircuitBreaker().getHalfOpenCalls(),
+            resilience.getCircuitBreaker().getOpenDuration().toNanos());
+        ResilientExchangeFilter resilienceFilter = new ResilientExchangeFilter(limiter, circuitBreaker,
+            new RetryBudget(resilience.getRetryBudgetRatio(), resilience.getRetryBudgetMax()),
+            resilience.getCallTimeout(), resilience.getMaxRetries(), resilience.getRetryBackoff());
 
-    public InstagramService(WebClient.Builder webClientBuilder) {
         this.webClient = webClientBuilder
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .filter(resilienceFilter)
             // This is a great practice, it sets the common part of the URL once
-            .baseUrl("https://www.instagram.com/api/v1/users/web_profile_info/")
+            .baseUrl(properties.getBaseUrl())
             // It's also good to set a User-Agent to avoid being blocked
             .defaultHeader("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/139.0.0.0 Safari/537.36")
             .defaultHeader("Accept", "*/*")
@@ -30,30 +101,204 @@ public class InstagramService {
             .defaultCookie("mid", "aLh8rQAEAAFt-NTNpXoH4Zhxziz5")
             .defaultCookie("wd", "1470x411")
             .build();
+        this.cacheProperties = properties.getCache();
+        this.profileCache = buildCache(this::fetchProfile,
+                profile -> profile.map(InstagramProfile::getData).map(InstagramProfile.Data::getUser).isPresent());
+        this.rawProfileCache = buildCache(this::fetchRawProfile, Optional::isPresent);
     }
 
     public Mono<InstagramProfile> getProfileByUsername(String username) {
-        return webClient.get()
-            // Now you only need to provide the query parameter in the URI call
-            .uri("?username={username}", username)
-            .retrieve()
-            .bodyToMono(InstagramProfile.class)
+        return cached(profileCache, this::fetchProfile, username)
             // It's crucial to handle exceptions to prevent the application from crashing
             .onErrorResume(WebClientResponseException.class, e -> {
-                System.err.println("Error fetching Instagram profile for " + username + ": " + e.getStatusCode());
+                log.warn("Error fetching Instagram profile for {}: {}", username, e.getStatusCode());
                 return Mono.empty();
             });
     }
 
         // New method (raw JSON response)
     public Mono<String> getRawProfileByUsername(String username) {
+        return cached(rawProfileCache, this::fetchRawProfile, username)
+            .defaultIfEmpty("{}") // unknown user
+            .onErrorResume(WebClientResponseException.class, e -> {
+                log.warn("Error fetching raw Instagram profile for {}: {}", username, e.getStatusCode());
+                return Mono.just("{}"); // return empty JSON on error
+            });
+    }
+
+    /**
+     * Raw profile JSON without decoding it: the body is the upstream's buffers as they arrive, so the
+     * payload is never held in full or turned into a String. With {@code gzip} the upstream is asked to
+     * compress, and the compressed bytes come back untouched (check the Content-Encoding header).
+     * Bypasses the cache. Empty when the user doesn't exist or the upstream answered with an error.
+     * The caller must consume or cancel the body, otherwise the connection is not returned to the pool.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamRawProfile(String username, boolean gzip) {
         return webClient.get()
-            .uri("?username={username}", username)
+            .uri("?username={username}", username.toLowerCase(Locale.ROOT))
+            .headers(headers -> {
+                if (gzip) {
+                    // Set by hand, so Reactor Netty leaves the response compressed
+                    headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+                }
+            })
             .retrieve()
-            .bodyToMono(String.class) // raw JSON
+            .toEntityFlux(DataBuffer.class)
             .onErrorResume(WebClientResponseException.class, e -> {
-                System.err.println("Error fetching raw Instagram profile for " + username + ": " + e.getStatusCode());
-                return Mono.just("{}"); // return empty JSON on error
+                if (e.getStatusCode().value() != 404) {
+                    log.warn("Error streaming raw Instagram profile for {}: {}", username, e.getStatusCode());
+                }
+                return Mono.empty();
             });
     }
+
+    /**
+     * Looks up many usernames with at most {@code concurrency} upstream calls in flight.
+     * Results are emitted in completion order, and a failed lookup becomes an ERROR entry
+     * rather than an error signal, so one bad username never cuts the stream short.
+     */
+    public Flux<ProfileLookupResult> getProfiles(List<String> usernames, int concurrency) {
+        return Flux.fromIterable(usernames)
+            .flatMap(this::lookupProfile, concurrency);
+    }
+
+    private Mono<ProfileLookupResult> lookupProfile(String username) {
+        return cached(profileCache, this::fetchProfile, username)
+            .flatMap(profile -> Mono.justOrEmpty(profile.getData()).mapNotNull(InstagramProfile.Data::getUser))
+            .map(user -> ProfileLookupResult.found(username, user))
+            .defaultIfEmpty(ProfileLookupResult.notFound(username))
+            .onErrorResume(e -> Mono.just(ProfileLookupResult.error(username, describeError(e))));
+    }
+
+    private static String describeError(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return "Upstream returned " + responseException.getStatusCode();
+        }
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    /**
+     * Hit ratio, evictions and load latency for both profile caches.
+     */
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("profiles", describe(profileCache));
+        stats.put("rawProfiles", describe(rawProfileCache));
+        return stats;
+    }
+
+    /**
+     * Current adaptive concurrency limit, calls in flight and circuit breaker state.
+     */
+    public Map<String, Object> getUpstreamStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("concurrencyLimit", limiter.getLimit());
+        stats.put("inFlight", limiter.getInFlight());
+        stats.put("circuitBreaker", circuitBreaker.getState());
+        return stats;
+    }
+
+    // Same numbers as getCacheStats()/getUpstreamStats(), for Prometheus; read only when scraped
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same tag keys as the cache metrics Spring Boot publishes for the CacheManager's caches; Prometheus
+        // drops meters whose name is already registered with a different set of tag keys
+        CaffeineCacheMetrics.monitor(registry, profileCache, "instagram.profiles",
+                "cache.manager", "instagram", "name", "instagram.profiles");
+        CaffeineCacheMetrics.monitor(registry, rawProfileCache, "instagram.rawProfiles",
+                "cache.manager", "instagram", "name", "instagram.rawProfiles");
+        Gauge.builder("instagram.upstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .register(registry);
+        Gauge.builder("instagram.upstream.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .register(registry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("instagram.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                .tag("state", state.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    private Mono<InstagramProfile> fetchProfile(String username) {
+        return webClient.get()
+            // Now you only need to provide the query parameter in the URI call
+            .uri("?username={username}", username)
+            .retrieve()
+            .bodyToMono(InstagramProfile.class)
+            // A 404 is a real answer and gets cached as "not found"; any other error is not cached
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    private Mono<String> fetchRawProfile(String username) {
+        return webClient.get()
+            .uri("?username={username}", username)
+            .retrieve()
+            .bodyToMono(String.class) // raw JSON
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    private <V> Mono<V> cached(AsyncLoadingCache<String, Optional<V>> cache,
+                               Function<String, Mono<V>> loader, String username) {
+        String key = username.toLowerCase(Locale.ROOT);
+        if (!cacheProperties.isEnabled()) {
+            return loader.apply(key);
+        }
+        // Concurrent misses for the same key get the same future, so only one upstream call is made.
+        // Cancellation is suppressed: one caller going away must not cancel the load for everyone else.
+        CompletableFuture<Optional<V>> load = cache.get(key);
+        return Mono.fromFuture(load, true)
+            // Caffeine drops failed loads on its own, but asynchronously; make sure the next caller retries
+            .doOnError(e -> cache.asMap().remove(key, load))
+            .flatMap(Mono::justOrEmpty);
+    }
+
+    private <V> AsyncLoadingCache<String, Optional<V>> buildCache(Function<String, Mono<V>> loader,
+                                                                Predicate<Optional<V>> found) {
+        long ttl = cacheProperties.getTtl().toNanos();
+        long negativeTtl = cacheProperties.getNegativeTtl().toNanos();
+        return Caffeine.newBuilder()
+            .maximumSize(cacheProperties.getMaximumSize())
+            .expireAfter(new Expiry<String, Optional<V>>() {
+                @Override
+                public long expireAfterCreate(String key, Optional<V> value, long currentTime) {
+                    return found.test(value) ? ttl : negativeTtl;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Optional<V> value, long currentTime, long currentDuration) {
+                    // A background refresh replaces the value, so it gets a fresh lifetime
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Optional<V> value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            // Entries older than this are served as-is while a reload runs in the background
+            .refreshAfterWrite(cacheProperties.getRefreshAfter())
+            .recordStats()
+            .buildAsync((key, executor) -> loader.apply(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture());
+    }
+
+    private static Map<String, Object> describe(AsyncLoadingCache<?, ?> cache) {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.synchronous().estimatedSize());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictionCount", stats.evictionCount());
+        description.put("loadSuccessCount", stats.loadSuccessCount());
+        description.put("loadFailureCount", stats.loadFailureCount());
+        description.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return description;
+    }
 }
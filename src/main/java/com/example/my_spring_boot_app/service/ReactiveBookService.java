@@ -0,0 +1,52 @@
+package com.example.my_spring_boot_app.service;
+
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.repository.ReactiveBookRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking twin of BookService, backed by R2DBC ("reactive" profile)
+@Service
+@Profile("reactive")
+public class ReactiveBookService {
+
+    @Autowired
+    private ReactiveBookRepository bookRepository;
+
+    // Shared with the JPA services: rows written here must not be served stale from there
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Flux<Book> getAllBooks() {
+        return bookRepository.findAllByOrderByIdAsc();
+    }
+
+    public Flux<Book> getBooksAfter(Long after, int limit) {
+        return bookRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    public Mono<Book> getBookById(Long id) {
+        return bookRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Book not found with id: " + id)));
+    }
+
+    public Mono<Book> saveBook(Book book) {
+        return bookRepository.save(book).doOnSuccess(saved -> {
+            cacheManager.getCache(CacheConfig.BOOKS).evict(saved.getId());
+            cacheManager.getCache(CacheConfig.BOOK_LISTS).clear();
+            eventPublisher.publishEvent(new BookSavedEvent(saved));
+        });
+    }
+}
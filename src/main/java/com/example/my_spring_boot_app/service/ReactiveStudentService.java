@@ -0,0 +1,81 @@
+package com.example.my_spring_boot_app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.ReactiveStudentRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking twin of StudentService, backed by R2DBC ("reactive" profile)
+@Service
+@Profile("reactive")
+public class ReactiveStudentService {
+
+    @Autowired
+    private ReactiveStudentRepository studentRepository;
+
+    // Shared with the JPA services: rows written here must not be served stale from there
+    @Autowired
+    private CacheManager cacheManager;
+
+    // No thread-bound transaction here, so the change feed gets these straight away
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Flux<Student> getAllStudents() {
+        // Streams straight off the database cursor, at the pace the subscriber requests rows
+        return studentRepository.findAllByOrderByIdAsc();
+    }
+
+    public Flux<Student> getStudentsAfter(Long after, int limit) {
+        return studentRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit));
+    }
+
+    public Mono<Student> getStudentById(Long id) {
+        return studentRepository.findById(id);
+    }
+
+    public Mono<Student> createStudent(Student student) {
+        return studentRepository.save(student).doOnSuccess(saved -> {
+            evictCaches(saved.getId());
+            eventPublisher.publishEvent(StudentChangedEvent.created(StudentDto.from(saved)));
+        });
+    }
+
+    public Mono<Student> updateStudent(Long id, Student student) {
+        // save() would need the current version; a targeted UPDATE doesn't. The row is read back afterwards
+        // for its new version (there's no transaction to hold it still, so that's the version as of the read).
+        return studentRepository.updateById(id, student.getName(), student.getEmail(), student.getPhone(), student.getCourse())
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> studentRepository.findById(id))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found with id: " + id)))
+                .doOnSuccess(saved -> {
+                    evictCaches(id);
+                    eventPublisher.publishEvent(new StudentChangedEvent(StudentChange.Type.UPDATED, id, StudentDto.from(saved)));
+                });
+    }
+
+    public Mono<Void> deleteStudent(Long id) {
+        return studentRepository.deleteById(id).doOnSuccess(done -> {
+            evictCaches(id);
+            eventPublisher.publishEvent(new StudentChangedEvent(StudentChange.Type.DELETED, id, null));
+        });
+    }
+
+    private void evictCaches(Long id) {
+        cacheManager.getCache(CacheConfig.STUDENTS).evict(id);
+        cacheManager.getCache(CacheConfig.STUDENT_LISTS).clear();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.my_spring_boot_app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.config.ChangeFeedProperties;
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Feed of student creates, updates and deletes, for clients that would otherwise poll the full list.
+ * Changes are taken from {@link StudentChangedEvent}s once their transaction has committed, numbered with
+ * increasing offsets and kept in a ring of the last {@code history} changes, so a client that reconnects
+ * with the last offset it saw gets what it missed and then carries on live.
+ * <p>
+ * Every subscriber has its own bounded buffer. Appending never waits for a subscriber: one whose buffer is
+ * full is disconnected after what's buffered has gone out, and resumes from its last offset when it comes
+ * back. An idle subscriber costs a buffer and a connection, no thread.
+ * <p>
+ * The feed is in memory and covers the writes made through this instance.
+ */
+@Slf4j
+@Service
+public class StudentChangeFeed implements MeterBinder {
+
+    private final ChangeFeedProperties properties;
+
+    // Guarded by this, like nextOffset and size
+    private final StudentChange[] history;
+    // Offsets start from the clock, so an offset handed out before a restart is never mistaken for a current one
+    private long nextOffset = System.currentTimeMillis() * 1000;
+    private int size;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private Counter evictions;
+
+    public StudentChangeFeed(ChangeFeedProperties properties) {
+        this.properties = properties;
+        this.history = new StudentChange[properties.getHistory()];
+    }
+
+    // After commit, so a rolled-back write is never announced; immediately when there's no transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        append(event.type(), event.id(), event.student());
+    }
+
+    /**
+     * Changes after {@code lastOffset}, followed by live ones. Without an offset only live changes; with one
+     * that's no longer (or never was) in the history, a single RESET change and then live ones.
+     */
+    public Flux<StudentChange> changes(Long lastOffset) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers, try again later");
+        }
+        return Flux.defer(() -> {
+            Subscriber subscriber = new Subscriber(Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<StudentChange>get(properties.getSubscriberBuffer()).get()));
+            List<StudentChange> missed = subscribe(subscriber, lastOffset);
+            return Flux.concat(Flux.fromIterable(missed), subscriber.sink.asFlux())
+                    .doFinally(signal -> subscribers.remove(subscriber));
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.changes.subscribers", subscribers, Set::size).register(registry);
+        evictions = Counter.builder("student.changes.evictions")
+                .description("Subscribers disconnected for falling behind")
+                .register(registry);
+    }
+
+    synchronized StudentChange append(StudentChange.Type type, Long id, StudentDto student) {
+        StudentChange change = new StudentChange(nextOffset++, type, id, student);
+        history[(int) (change.offset() % history.length)] = change;
+        size = Math.min(size + 1, history.length);
+        // Under the lock, so every subscriber sees the changes in offset order
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change);
+        }
+        return change;
+    }
+
+    // Backlog and registration happen together, so nothing is missed or sent twice between the two
+    private synchronized List<StudentChange> subscribe(Subscriber subscriber, Long lastOffset) {
+        subscribers.add(subscriber);
+        long latest = nextOffset - 1;
+        if (lastOffset == null || lastOffset == latest) {
+            return List.of();
+        }
+        long oldest = nextOffset - size;
+        if (lastOffset < oldest - 1 || lastOffset > latest) {
+            return List.of(new StudentChange(latest, StudentChange.Type.RESET, null, null));
+        }
+        List<StudentChange> missed = new ArrayList<>((int) (latest - lastOffset));
+        for (long offset = lastOffset + 1; offset <= latest; offset++) {
+            missed.add(history[(int) (offset % history.length)]);
+        }
+        return missed;
+    }
+
+    private final class Subscriber {
+
+        private final Sinks.Many<StudentChange> sink;
+
+        Subscriber(Sinks.Many<StudentChange> sink) {
+            this.sink = sink;
+        }
+
+        void offer(StudentChange change) {
+            Sinks.EmitResult result = sink.tryEmitNext(change);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // Completes once the buffered changes are out; the client reconnects with the last offset it got
+                log.debug("Disconnecting change feed subscriber {} changes behind", properties.getSubscriberBuffer());
+                subscribers.remove(this);
+                sink.tryEmitComplete();
+                if (evictions != null) {
+                    evictions.increment();
+                }
+            } else if (result.isFailure()) {
+                // Cancelled or already done
+                subscribers.remove(this);
+            }
+        }
+    }
+}
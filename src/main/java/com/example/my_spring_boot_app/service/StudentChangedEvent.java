@@ -0,0 +1,12 @@
+package com.example.my_spring_boot_app.service;
+
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentDto;
+
+// Published by the student services for every write; StudentChangeFeed passes it on once the write has committed
+public record StudentChangedEvent(StudentChange.Type type, Long id, StudentDto student) {
+
+    public static StudentChangedEvent created(StudentDto student) {
+        return new StudentChangedEvent(StudentChange.Type.CREATED, student.id(), student);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.my_spring_boot_app.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.dto.BulkImportResult;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk student import. Uploads are read incrementally and written in chunks of {@link #CHUNK_SIZE}
+ * rows, one transaction per chunk, so Hibernate can send the inserts as JDBC batches.
+ * A chunk the database rejects is replayed row by row, so one bad row only fails itself.
+ * An import clears the student caches, since a lookup of a not-yet-imported id may be cached as a miss.
+ */
+@Slf4j
+@Service
+public class StudentImportService {
+
+    // Rows per transaction; a multiple of hibernate.jdbc.batch_size so every flush sends full batches
+    static final int CHUNK_SIZE = 500;
+
+    // Keep the response bounded even if a huge upload is mostly garbage
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String[] DEFAULT_CSV_COLUMNS = {"name", "email", "phone", "course"};
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Body is a JSON array of StudentCreateDto objects, read element by element
+    @CacheEvict(cacheNames = {CacheConfig.STUDENTS, CacheConfig.STUDENT_LISTS}, allEntries = true)
+    public BulkImportResult importJson(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+        int row = 0;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of students");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                row++;
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    run.accept(row, objectMapper.treeToValue(node, StudentCreateDto.class));
+                } catch (JsonProcessingException e) {
+                    run.malformed(row, "Invalid student: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonParseException e) {
+            // A syntax error means we can't find the next element reliably, so stop here
+            run.malformed(row + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    // Body is newline-delimited JSON, one StudentCreateDto per line
+    @CacheEvict(cacheNames = {CacheConfig.STUDENTS, CacheConfig.STUDENT_LISTS}, allEntries = true)
+    public BulkImportResult importNdjson(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.accept(row, objectMapper.readValue(line, StudentCreateDto.class));
+                } catch (JsonProcessingException e) {
+                    run.malformed(row, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    // Body is CSV; an optional header row picks the column order, otherwise name,email,phone,course
+    @CacheEvict(cacheNames = {CacheConfig.STUDENTS, CacheConfig.STUDENT_LISTS}, allEntries = true)
+    public BulkImportResult importCsv(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] columns = DEFAULT_CSV_COLUMNS;
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> cells = parseCsvLine(line);
+                if (row == 1 && isHeader(cells)) {
+                    columns = cells.stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+                    continue;
+                }
+                if (cells.size() != columns.length) {
+                    run.malformed(row, "Expected " + columns.length + " columns but found " + cells.size());
+                    continue;
+                }
+                StudentCreateDto dto = new StudentCreateDto();
+                for (int i = 0; i < columns.length; i++) {
+                    String value = cells.get(i).isEmpty() ? null : cells.get(i);
+                    switch (columns[i]) {
+                        case "name" -> dto.setName(value);
+                        case "email" -> dto.setEmail(value);
+                        case "phone" -> dto.setPhone(value);
+                        case "course" -> dto.setCourse(value);
+                        default -> { } // unknown columns are ignored
+                    }
+                }
+                run.accept(row, dto);
+            }
+        }
+        return run.finish();
+    }
+
+    private static boolean isHeader(List<String> cells) {
+        return cells.stream().anyMatch(c -> c.trim().equalsIgnoreCase("name"));
+    }
+
+    // Minimal RFC 4180 field splitting: quoted fields, "" escapes; fields may not span lines
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private void saveChunk(List<PendingRow> rows) {
+        List<Student> students = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            // Always build fresh entities: a failed attempt leaves ids on the old ones
+            students.add(row.dto().toEntity());
+        }
+        studentRepository.saveAll(students);
+        studentRepository.flush();
+        // Delivered to the change feed only if the chunk commits; a replayed row is announced by its own attempt
+        students.forEach(student -> eventPublisher.publishEvent(StudentChangedEvent.created(StudentDto.from(student))));
+        // Nothing here is read back, so don't let the persistence context grow across chunks
+        entityManager.clear();
+    }
+
+    private record PendingRow(int row, StudentCreateDto dto) {
+    }
+
+    // State for a single upload: the chunk being filled plus the running counts
+    private class ImportRun {
+
+        private List<PendingRow> pending = new ArrayList<>(CHUNK_SIZE);
+        private final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+        private int failed;
+
+        void accept(int row, StudentCreateDto dto) {
+            received++;
+            if (dto == null) {
+                reject(row, "Row is empty");
+                return;
+            }
+            if (dto.getName() == null || dto.getName().isBlank()) {
+                reject(row, "name is required");
+                return;
+            }
+            pending.add(new PendingRow(row, dto));
+            if (pending.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        // A row that couldn't even be parsed into a StudentCreateDto
+        void malformed(int row, String message) {
+            received++;
+            reject(row, message);
+        }
+
+        void reject(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResult.RowError(row, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingRow> chunk = pending;
+            pending = new ArrayList<>(CHUNK_SIZE);
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveChunk(chunk));
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                log.debug("Chunk of {} students rejected, retrying row by row: {}", chunk.size(), e.getMessage());
+                for (PendingRow row : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> saveChunk(List.of(row)));
+                        imported++;
+                    } catch (RuntimeException rowError) {
+                        reject(row.row(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                    }
+                }
+            }
+        }
+
+        BulkImportResult finish() {
+            flush();
+            return new BulkImportResult(received, imported, failed, errors);
+        }
+    }
+}
@@ -1,10 +1,35 @@
 package com.example.my_spring_boot_app.service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentDto;
 import com.example.my_spring_boot_app.model.Student;
 import com.example.my_spring_boot_app.repository.StudentRepository;
 
@@ -14,29 +39,144 @@ public class StudentService {
     @Autowired
     private StudentRepository studentRepository;
 
-    public List<Student> getAllStudents() {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Reads run in read-only transactions (flush mode MANUAL, read-only connection) and select into StudentDto
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STUDENT_LISTS, key = "'all'", sync = true)
+    public List<StudentDto> getAllStudents() {
         // Logic to retrieve all students
-        return studentRepository.findAll();
+        return studentRepository.findAllByOrderByIdAsc(StudentDto.class);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STUDENT_LISTS, sync = true)
+    public List<StudentDto> getStudentsAfter(Long after, int limit) {
+        // Keyset pagination: resume after the last id the client has seen
+        return studentRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit), StudentDto.class);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllStudents(Consumer<StudentDto> action) {
+        // Walk the table through a JDBC cursor, handing each row off as soon as it's read.
+        // Rows are projected straight into DTOs, so nothing piles up in the persistence context.
+        try (Stream<StudentDto> students = studentRepository.streamAllByOrderByIdAsc(StudentDto.class)) {
+            students.forEach(action);
+        }
     }
 
-    public Student getStudentById(Long id) {
+    // sync: one load per id at a time, and a concurrent write to the same id waits for it, so a
+    // slow read can never overwrite a newer value (misses are cached as null until the id is written)
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STUDENTS, sync = true)
+    public StudentDto getStudentById(Long id) {
         // Logic to retrieve a student by ID
-        return studentRepository.findById(id).orElse(null);
+        return studentRepository.findById(id, StudentDto.class).orElse(null);
     }
 
-    public Student createStudent(Student student) {
+    // Just the version, for conditional GETs: from the cached copy when there is one, otherwise a single-column
+    // select, so a poll that ends in a 304 never loads the row (nor puts it in the cache)
+    public Long getStudentVersion(Long id) {
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.STUDENTS).get(id);
+        if (cached != null) {
+            StudentDto student = (StudentDto) cached.get();
+            return student != null ? student.version() : null;
+        }
+        return studentRepository.findVersionById(id).orElse(null);
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.STUDENTS, key = "#result.id()"),
+            evict = @CacheEvict(cacheNames = CacheConfig.STUDENT_LISTS, allEntries = true))
+    public StudentDto createStudent(Student student) {
         // Logic to create a new student
-        return studentRepository.save(student);
+        StudentDto created = StudentDto.from(studentRepository.save(student));
+        eventPublisher.publishEvent(StudentChangedEvent.created(created));
+        return created;
     }
 
-    public Student updateStudent(Long id, Student student) {
-        // Logic to update an existing student
+    // Full replacement. One UPDATE statement instead of save()/merge, which would SELECT the row first.
+    // With an expected version the new one is known (the UPDATE matched on it); without, it's read back
+    // in the same transaction, so it's the one this write produced.
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.STUDENT_LISTS, allEntries = true)})
+    public StudentDto updateStudent(Long id, Student student) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", student.getName());
+        fields.put("email", student.getEmail());
+        fields.put("phone", student.getPhone());
+        fields.put("course", student.getCourse());
+        updateFields(id, student.getVersion(), fields);
         student.setId(id);
-        return studentRepository.save(student);
+        student.setVersion(student.getVersion() != null
+                ? student.getVersion() + 1
+                : studentRepository.findVersionById(id).orElseThrow());
+        StudentDto updated = StudentDto.from(student);
+        eventPublisher.publishEvent(new StudentChangedEvent(StudentChange.Type.UPDATED, id, updated));
+        return updated;
+    }
+
+    // Partial update: only the given fields are written, in a single UPDATE
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.STUDENT_LISTS, allEntries = true)})
+    public void patchStudent(Long id, Map<String, Object> fields, Long expectedVersion) {
+        updateFields(id, expectedVersion, fields);
+        // Only the changed fields are known here, so the change carries just the id
+        eventPublisher.publishEvent(new StudentChangedEvent(StudentChange.Type.UPDATED, id, null));
+    }
+
+    // Delete only while the row still has the expected version; fails like a stale update otherwise.
+    // Without one, deleting a row that isn't there succeeds but isn't a change, so the feed doesn't hear of it
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.STUDENT_LISTS, allEntries = true)})
+    public void deleteStudent(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            if (studentRepository.deleteRowById(id) == 0) {
+                return;
+            }
+        } else if (studentRepository.deleteByIdAndVersion(id, expectedVersion) == 0) {
+            throw staleOrMissing(id, expectedVersion);
+        }
+        eventPublisher.publishEvent(new StudentChangedEvent(StudentChange.Type.DELETED, id, null));
+    }
+
+    // UPDATE students SET <fields>, version = version + 1 WHERE id = ? [AND version = ?]
+    private void updateFields(Long id, Long expectedVersion, Map<String, Object> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Student> update = cb.createCriteriaUpdate(Student.class);
+        Root<Student> student = update.from(Student.class);
+        fields.forEach(update::set);
+        update.set(student.<Long>get("version"), cb.sum(student.<Long>get("version"), 1L));
+        Predicate where = cb.equal(student.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(student.get("version"), expectedVersion));
+        }
+        update.where(where);
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            throw staleOrMissing(id, expectedVersion);
+        }
     }
 
-    public void deleteStudent(Long id) {
-        // Logic to delete a student
-        studentRepository.deleteById(id);
+    // Only a failed write pays for a second statement, to tell the caller which way it failed
+    private ResponseStatusException staleOrMissing(Long id, Long expectedVersion) {
+        if (!studentRepository.existsById(id)) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found with id: " + id);
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Student " + id + " has changed since version " + expectedVersion);
     }
 }
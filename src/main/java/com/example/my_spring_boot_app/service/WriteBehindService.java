@@ -0,0 +1,125 @@
+package com.example.my_spring_boot_app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.config.WriteBehindProperties;
+import com.example.my_spring_boot_app.dto.BookCreateDto;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.BookRepository;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Write-behind creates ({@code write-behind.enabled=true}): POST /api/students and /api/books queue the row
+ * in a {@link GroupCommitBuffer} and many creates share one transaction and one commit, instead of paying a
+ * commit each. The returned future completes with the saved row (id included) once its batch has committed.
+ * <p>
+ * Caches and the search index see the rows the same way as with BookService/StudentService: the cache
+ * manager is transaction aware, and BookSavedEvent and StudentChangedEvent are handled after commit. On shutdown the buffers are
+ * drained before the repositories and the DataSource go away.
+ */
+@Service
+@ConditionalOnProperty(prefix = "write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindService {
+
+    @Autowired
+    private WriteBehindProperties properties;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private GroupCommitBuffer<StudentCreateDto, StudentDto> students;
+    private GroupCommitBuffer<BookCreateDto, BookDto> books;
+
+    @PostConstruct
+    void start() {
+        students = new GroupCommitBuffer<>("students", properties, this::saveStudents);
+        books = new GroupCommitBuffer<>("books", properties, this::saveBooks);
+    }
+
+    @PreDestroy
+    void drain() {
+        students.close();
+        books.close();
+    }
+
+    public CompletableFuture<StudentDto> createStudent(StudentCreateDto student) {
+        return students.submit(student);
+    }
+
+    public CompletableFuture<BookDto> createBook(BookCreateDto book) {
+        return books.submit(book);
+    }
+
+    // Entities are built afresh on every attempt: a rolled-back batch leaves ids on the old ones
+    private List<StudentDto> saveStudents(List<StudentCreateDto> rows) {
+        return transactionTemplate.execute(status -> {
+            List<Student> saved = new ArrayList<>(rows.size());
+            for (StudentCreateDto row : rows) {
+                saved.add(row.toEntity());
+            }
+            studentRepository.saveAll(saved);
+            studentRepository.flush();
+            entityManager.clear();
+            List<StudentDto> result = saved.stream().map(StudentDto::from).toList();
+            result.forEach(student -> eventPublisher.publishEvent(StudentChangedEvent.created(student)));
+            // Applied once committed; the put also replaces a cached miss for an id that was asked for early
+            Cache cache = cacheManager.getCache(CacheConfig.STUDENTS);
+            result.forEach(student -> cache.put(student.id(), student));
+            cacheManager.getCache(CacheConfig.STUDENT_LISTS).clear();
+            return result;
+        });
+    }
+
+    private List<BookDto> saveBooks(List<BookCreateDto> rows) {
+        return transactionTemplate.execute(status -> {
+            List<Book> saved = new ArrayList<>(rows.size());
+            for (BookCreateDto row : rows) {
+                saved.add(row.toEntity());
+            }
+            bookRepository.saveAll(saved);
+            bookRepository.flush();
+            entityManager.clear();
+            saved.forEach(book -> eventPublisher.publishEvent(new BookSavedEvent(book)));
+            List<BookDto> result = saved.stream().map(BookDto::from).toList();
+            Cache cache = cacheManager.getCache(CacheConfig.BOOKS);
+            result.forEach(book -> cache.put(book.id(), book));
+            cacheManager.getCache(CacheConfig.BOOK_LISTS).clear();
+            return result;
+        });
+    }
+}
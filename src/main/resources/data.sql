@@ -1,13 +1,13 @@
-INSERT INTO books (title, author) VALUES ('The Hobbit', 'J.R.R. Tolkien');
-INSERT INTO books (title, author) VALUES ('Dune', 'Frank Herbert');
-INSERT INTO books (title, author) VALUES ('1984', 'George Orwell');
-INSERT INTO books (title, author) VALUES ('To Kill a Mockingbird', 'Harper Lee');
-INSERT INTO books (title, author) VALUES ('The Great Gatsby', 'F. Scott Fitzgerald');
-INSERT INTO books (title, author) VALUES ('Moby Dick', 'Herman Melville');
-INSERT INTO books (title, author) VALUES ('Pride and Prejudice', 'Jane Austen');
+-- Ids come from books_seq (pooled, allocation size 50), so draw them from the sequence rather than the column default
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'The Hobbit', 'J.R.R. Tolkien');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'Dune', 'Frank Herbert');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), '1984', 'George Orwell');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'To Kill a Mockingbird', 'Harper Lee');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'The Great Gatsby', 'F. Scott Fitzgerald');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'Moby Dick', 'Herman Melville');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'Pride and Prejudice', 'Jane Austen');
 -- Hindi books
-INSERT INTO books (title, author) VALUES ('The God of Small Things', 'Arundhati Roy');
-INSERT INTO books (title, author) VALUES ('Train to Pakistan', 'Khushwant Singh');
-INSERT INTO books (title, author) VALUES ('The Inheritance of Loss', 'Kiran Desai');
-INSERT INTO books (title, author) VALUES ('A Fine Balance', 'Rohinton Mistry');
-
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'The God of Small Things', 'Arundhati Roy');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'Train to Pakistan', 'Khushwant Singh');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'The Inheritance of Loss', 'Kiran Desai');
+INSERT INTO books (id, title, author) VALUES (nextval('books_seq'), 'A Fine Balance', 'Rohinton Mistry');
@@ -0,0 +1,116 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Payload size and serialization CPU of each format the API offers, for a page-sized list of students, of books,
+ * and a single Instagram profile. Goes through the same converters the MVC layer uses (set up as
+ * BinaryFormatsConfig does), so the numbers include what Spring adds around the codec, but not the network.
+ * Encode and decode are timed separately, as CPU time of the benchmark thread.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=BinaryFormatsBenchmarkTests}.
+ */
+@Tag("benchmark")
+class BinaryFormatsBenchmarkTests {
+
+	private static final int ROWS = Integer.getInteger("bench.rows", 1000);
+	private static final int ITERATIONS = Integer.getInteger("bench.iterations", 2000);
+
+	@Test
+	void payloadSizeAndCodecCpuPerFormat() throws Exception {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		BinaryFormatsConfig config = new BinaryFormatsConfig();
+		Map<String, GenericHttpMessageConverter<Object>> formats = new LinkedHashMap<>();
+		formats.put("json", new MappingJackson2HttpMessageConverter(objectMapper));
+		formats.put("smile", config.smileHttpMessageConverter(objectMapper));
+		formats.put("cbor", config.cborHttpMessageConverter(objectMapper));
+		formats.put("protobuf", new ProtobufMessageConverter());
+
+		List<StudentDto> students = new ArrayList<>();
+		List<BookDto> books = new ArrayList<>();
+		for (long i = 1; i <= ROWS; i++) {
+			students.add(new StudentDto(i, "Student Number " + i, "student" + i + "@example.com", "+1555" + (1000000 + i),
+					i % 3 == 0 ? "Computer Science" : "Mathematics", i % 7));
+			books.add(new BookDto(i, "Benchmark Volume " + i, "Author " + (i % 97), i % 5));
+		}
+		InstagramProfile.User user = new InstagramProfile.User();
+		user.setUsername("sakshi_raghu_1c_");
+		user.setFullName("Sakshi Raghu");
+		user.setBiography("Coffee, code and the occasional mountain. Views are my own.");
+		user.setProfilePicUrlHd("https://scontent.cdninstagram.com/v/t51.2885-19/123456789_987654321_n.jpg?stp=dst-jpg_s320x320");
+		InstagramProfile.EdgeFollowedBy followers = new InstagramProfile.EdgeFollowedBy();
+		followers.setCount(48213);
+		user.setEdgeFollowedBy(followers);
+
+		System.out.printf("%d iterations; lists of %d rows%n", ITERATIONS, ROWS);
+		for (Map.Entry<String, GenericHttpMessageConverter<Object>> format : formats.entrySet()) {
+			System.out.println(format.getKey());
+			System.out.println("  students: " + measure(format.getValue(), students, listOf(StudentDto.class), ITERATIONS / 10));
+			System.out.println("  books:    " + measure(format.getValue(), books, listOf(BookDto.class), ITERATIONS / 10));
+			System.out.println("  profile:  " + measure(format.getValue(), user, InstagramProfile.User.class, ITERATIONS));
+		}
+	}
+
+	private static Result measure(GenericHttpMessageConverter<Object> converter, Object value, Type type, int iterations)
+			throws Exception {
+		MediaType mediaType = converter.getSupportedMediaTypes().get(0);
+		byte[] body = encode(converter, value, type, mediaType);
+		assertThat(converter.read(type, null, new MockHttpInputMessage(body))).usingRecursiveComparison().isEqualTo(value);
+		// Warm-up, then the timed rounds
+		for (int i = 0; i < iterations; i++) {
+			converter.read(type, null, new MockHttpInputMessage(encode(converter, value, type, mediaType)));
+		}
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long start = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < iterations; i++) {
+			encode(converter, value, type, mediaType);
+		}
+		long encoded = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < iterations; i++) {
+			converter.read(type, null, new MockHttpInputMessage(body));
+		}
+		long decoded = threads.getCurrentThreadCpuTime();
+		return new Result(body.length, (encoded - start) / 1000.0 / iterations, (decoded - encoded) / 1000.0 / iterations);
+	}
+
+	private static byte[] encode(GenericHttpMessageConverter<Object> converter, Object value, Type type, MediaType mediaType)
+			throws Exception {
+		MockHttpOutputMessage out = new MockHttpOutputMessage();
+		converter.write(value, type, mediaType, out);
+		return out.getBodyAsBytes();
+	}
+
+	private static Type listOf(Class<?> element) {
+		return ResolvableType.forClassWithGenerics(List.class, element).getType();
+	}
+
+	record Result(int bytes, double encodeMicros, double decodeMicros) {
+
+		@Override
+		public String toString() {
+			return String.format("%,9d bytes, encode %8.1f us, decode %8.1f us", bytes, encodeMicros, decodeMicros);
+		}
+	}
+}
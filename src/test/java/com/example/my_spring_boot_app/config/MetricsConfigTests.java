@@ -0,0 +1,59 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.security.TestTokens;
+import com.example.my_spring_boot_app.service.StudentService;
+
+// Metrics export is off in tests unless asked for
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsConfigTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void prometheusScrapeCoversRoutesPoolsAndHibernate() {
+		Student student = new Student();
+		student.setName("Metrics");
+		student.setCourse("Observability");
+		StudentDto created = studentService.createStudent(student);
+		assertThat(restTemplate.exchange(get("/api/students/" + created.id()), StudentDto.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		ResponseEntity<String> scrape = restTemplate.exchange(get("/actuator/prometheus"), String.class);
+
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(scrape.getBody())
+				.contains("http_server_requests_seconds_bucket{")
+				.contains("uri=\"/api/students/{id}\"")
+				.containsPattern("http_server_requests_statements_count\\{[^}]*uri=\"/api/students/\\{id}\"[^}]*} 1")
+				.contains("hikaricp_connections_active")
+				.contains("hibernate_entities_loads")
+				.contains("httpcomponents_httpclient_pool_total_max")
+				.contains("instagram_upstream_concurrency_limit")
+				.contains("cache_gets_total{cache=\"instagram.profiles\"")
+				.contains("cache_gets_total{cache=\"jwt.tokens\"")
+				.contains("jvm_gc_memory_allocated_bytes_total");
+	}
+
+	private static RequestEntity<Void> get(String path) {
+		return RequestEntity.get(path).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer("metrics")).build();
+	}
+}
@@ -0,0 +1,34 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// The docs are open, no token needed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OpenAPIConfigTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private ConfigurableListableBeanFactory beanFactory;
+
+	@Test
+	void springdocIsCreatedOnFirstRequest() {
+		assertThat(beanFactory.getBeanDefinition("openApiResource").isLazyInit()).isTrue();
+		assertThat(beanFactory.containsSingleton("openApiResource")).isFalse();
+
+		ResponseEntity<String> docs = restTemplate.getForEntity("/v3/api-docs", String.class);
+
+		assertThat(docs.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(docs.getBody()).contains("Student Management API").contains("/api/students/{id}");
+		assertThat(beanFactory.containsSingleton("openApiResource")).isTrue();
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+// jwt.enabled=false on its own, with nothing excluded by hand. Own database, so the other tests' contexts keep theirs
+@SpringBootTest(properties = {
+		"jwt.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:open-security;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+class OpenSecurityConfigTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void everythingIsOpenWithoutASession() throws Exception {
+		mockMvc.perform(get("/api/students"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+		mockMvc.perform(get("/api/books/search").param("q", "dune")).andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.service.StudentService;
+
+/**
+ * The application on two in-memory databases: the primary, and a replica that is a copy of it taken before
+ * the last write and never brought up to date. Own primary, so other tests' contexts can't recreate it.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rr-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+		"read-replicas.urls=" + ReadReplicaCacheTests.REPLICA_URL,
+		"read-replicas.health-check-interval=1h"})
+class ReadReplicaCacheTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:rr-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	private static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	static {
+		// The tables exist before the application starts reading from it; the rows come from copy() below
+		REPLICA.execute("CREATE TABLE IF NOT EXISTS students (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255),"
+				+ " phone VARCHAR(255), course VARCHAR(255), version BIGINT NOT NULL DEFAULT 0)");
+		REPLICA.execute("CREATE TABLE IF NOT EXISTS books (id BIGINT PRIMARY KEY, title VARCHAR(255), author VARCHAR(255),"
+				+ " version BIGINT NOT NULL DEFAULT 0)");
+	}
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void aReplicaThatIsBehindNeverEndsUpInTheCaches() throws Exception {
+		StudentDto created = studentService.createStudent(student("Before The Write"));
+		copyPrimaryToReplica();
+
+		Student renamed = student("After The Write");
+		studentService.updateStudent(created.id(), renamed);
+
+		// The replica still has the old row, and an uncached read-only transaction goes there
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		String onReplica = readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM students WHERE id = ?", String.class, created.id()));
+		assertThat(onReplica).isEqualTo("Before The Write");
+
+		// The cache misses load from the primary, and keep serving that
+		assertThat(studentService.getStudentById(created.id()).name()).isEqualTo("After The Write");
+		assertThat(studentService.getStudentById(created.id()).name()).isEqualTo("After The Write");
+		assertThat(studentService.getAllStudents())
+				.filteredOn(student -> student.id().equals(created.id()))
+				.extracting(StudentDto::name)
+				.containsExactly("After The Write");
+	}
+
+	private void copyPrimaryToReplica() throws Exception {
+		Path script = Files.createTempFile("rr-primary", ".sql");
+		try {
+			new JdbcTemplate(dataSource).execute("SCRIPT TO '" + script + "'");
+			REPLICA.execute("DROP ALL OBJECTS");
+			REPLICA.execute("RUNSCRIPT FROM '" + script + "'");
+		} finally {
+			Files.deleteIfExists(script);
+		}
+	}
+
+	private static Student student(String name) {
+		Student student = new Student();
+		student.setName(name);
+		student.setEmail("replica@example.com");
+		student.setCourse("Distributed Systems");
+		return student;
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routing against separate in-memory H2 databases standing in for the primary and two replicas. Each has one
+ * row naming the database, so a read shows where it ran.
+ */
+class ReadReplicaRoutingDataSourceTests {
+
+	private final AtomicReference<String> session = new AtomicReference<>();
+	private ReadReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbc;
+	private TransactionTemplate writes;
+	private TransactionTemplate reads;
+
+	@AfterEach
+	void close() {
+		routing.close();
+	}
+
+	@Test
+	void readOnlyTransactionsGoRoundTheReplicasAndWritesToThePrimary() {
+		start(Map.of(), Duration.ofSeconds(5));
+
+		List<String> readFrom = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			readFrom.add(whereAmI(reads));
+		}
+		assertThat(readFrom).containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+		assertThat(whereAmI(writes)).isEqualTo("primary");
+		// Outside a transaction too
+		assertThat(whereAmI()).isEqualTo("primary");
+	}
+
+	@Test
+	void aSessionReadsItsOwnWritesFromThePrimaryForTheWindow() throws Exception {
+		start(Map.of(), Duration.ofMillis(300));
+
+		session.set("alice");
+		writes.executeWithoutResult(status -> jdbc.update("INSERT INTO node VALUES ('written')"));
+		assertThat(whereAmI(reads)).isEqualTo("primary");
+		session.set("bob");
+		assertThat(whereAmI(reads)).startsWith("replica-");
+
+		// A rolled-back write doesn't pin
+		session.set("carol");
+		writes.executeWithoutResult(status -> {
+			jdbc.update("INSERT INTO node VALUES ('rolled back')");
+			status.setRollbackOnly();
+		});
+		assertThat(whereAmI(reads)).startsWith("replica-");
+
+		Thread.sleep(400);
+		session.set("alice");
+		assertThat(whereAmI(reads)).startsWith("replica-");
+	}
+
+	@Test
+	void readsSkipAReplicaThatIsDownAndFallBackToThePrimary() {
+		// IFEXISTS: the database was never created, so every connection attempt fails
+		start(Map.of("replica-2", dataSource("jdbc:h2:mem:replica-down-" + System.nanoTime() + ";IFEXISTS=TRUE")), Duration.ZERO);
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(whereAmI(reads)).isEqualTo("replica-1");
+		}
+
+		start(Map.of(
+				"replica-1", dataSource("jdbc:h2:mem:replica-down-" + System.nanoTime() + ";IFEXISTS=TRUE"),
+				"replica-2", dataSource("jdbc:h2:mem:replica-down-" + System.nanoTime() + ";IFEXISTS=TRUE")), Duration.ZERO);
+		assertThat(whereAmI(reads)).isEqualTo("primary");
+	}
+
+	private String whereAmI(TransactionTemplate transaction) {
+		return transaction.execute(status -> whereAmI());
+	}
+
+	private String whereAmI() {
+		return jdbc.queryForObject("SELECT name FROM node ORDER BY name LIMIT 1", String.class);
+	}
+
+	// replica-1 and replica-2, unless replaced
+	private void start(Map<String, DataSource> replaced, Duration readYourWritesWindow) {
+		if (routing != null) {
+			routing.close();
+		}
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		for (String name : List.of("replica-1", "replica-2")) {
+			replicas.put(name, replaced.getOrDefault(name, database(name)));
+		}
+		ReadReplicaProperties properties = new ReadReplicaProperties();
+		properties.setReadYourWritesWindow(readYourWritesWindow);
+		// Far off: the tests decide when a replica is down, not the background check
+		properties.setHealthCheckInterval(Duration.ofHours(1));
+		routing = new ReadReplicaRoutingDataSource(database("primary"), replicas, properties, session::get);
+		jdbc = new JdbcTemplate(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		writes = new TransactionTemplate(transactionManager);
+		reads = new TransactionTemplate(transactionManager);
+		reads.setReadOnly(true);
+	}
+
+	private static DataSource database(String name) {
+		DataSource dataSource = dataSource("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate setup = new JdbcTemplate(dataSource);
+		setup.execute("CREATE TABLE node (name VARCHAR(32))");
+		setup.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+
+	private static DataSource dataSource(String url) {
+		return new DriverManagerDataSource(url, "sa", "");
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.my_spring_boot_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.service.StudentService;
+
+/**
+ * With the entity cache off nothing is kept, so the reads behind @Cacheable go to the replicas like any other
+ * read-only transaction. The replica has a row the primary doesn't, which shows where a read ran.
+ */
+@SpringBootTest(properties = {
+		"entity-cache.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:rr-nocache-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+		"read-replicas.urls=" + ReadReplicaWithoutCacheTests.REPLICA_URL,
+		"read-replicas.health-check-interval=1h"})
+class ReadReplicaWithoutCacheTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:rr-nocache-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	private static final long ONLY_ON_REPLICA = 900_001L;
+
+	static {
+		JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+		replica.execute("CREATE TABLE IF NOT EXISTS students (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255),"
+				+ " phone VARCHAR(255), course VARCHAR(255), version BIGINT NOT NULL DEFAULT 0)");
+		replica.update("MERGE INTO students (id, name, version) KEY (id) VALUES (?, 'On The Replica', 0)", ONLY_ON_REPLICA);
+	}
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void getStudentByIdReadsFromTheReplica() {
+		assertThat(studentService.getStudentById(ONLY_ON_REPLICA)).isNotNull()
+				.extracting(StudentDto::name).isEqualTo("On The Replica");
+	}
+}
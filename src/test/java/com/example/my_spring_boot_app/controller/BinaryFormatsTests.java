@@ -0,0 +1,222 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.my_spring_boot_app.api.proto.Book;
+import com.example.my_spring_boot_app.api.proto.BookList;
+import com.example.my_spring_boot_app.api.proto.InstagramUser;
+import com.example.my_spring_boot_app.api.proto.Student;
+import com.example.my_spring_boot_app.api.proto.StudentList;
+import com.example.my_spring_boot_app.config.ProtobufMessageConverter;
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// Filters off: the login in front of the API doesn't matter here. Own database, so the lists keep data.sql's rows
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:binary-formats;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc(addFilters = false)
+class BinaryFormatsTests {
+
+	private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private StudentService studentService;
+
+	private final ProtobufMessageConverter protobuf = new ProtobufMessageConverter();
+
+	private StudentDto student;
+
+	// data.sql only has books; no email, so a missing field goes over the wire too
+	@BeforeEach
+	void addStudent() {
+		com.example.my_spring_boot_app.model.Student student = new com.example.my_spring_boot_app.model.Student();
+		student.setName("Ada");
+		student.setPhone("123");
+		student.setCourse("Mathematics");
+		this.student = studentService.createStudent(student);
+	}
+
+	@Test
+	void jsonUnlessTheClientAsksForSomethingElse() throws Exception {
+		for (String accept : new String[] {null, "*/*", "application/json", "application/cbor;q=0.5, application/json"}) {
+			MockHttpServletRequestBuilder request = get("/api/books");
+			if (accept != null) {
+				request.header(HttpHeaders.ACCEPT, accept);
+			}
+			mockMvc.perform(request)
+					.andExpect(status().isOk())
+					.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+					.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+		}
+		mockMvc.perform(get("/api/students"))
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+	}
+
+	// A 304 carries the Vary a 200 would have
+	@Test
+	void notModifiedVariesByAcceptToo() throws Exception {
+		String bookTag = mockMvc.perform(get("/api/books")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, bookTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+		String studentTag = mockMvc.perform(get("/api/students")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/students").header(HttpHeaders.IF_NONE_MATCH, studentTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+		mockMvc.perform(get("/api/students/{id}", student.id()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+	}
+
+	@Test
+	void theSameListsInEachBinaryFormat() throws Exception {
+		BookDto[] books = objectMapper.readValue(body("/api/books", MediaType.APPLICATION_JSON), BookDto[].class);
+		StudentDto[] students = objectMapper.readValue(body("/api/students", MediaType.APPLICATION_JSON), StudentDto[].class);
+		assertThat(books).isNotEmpty();
+		assertThat(students).isNotEmpty();
+
+		ObjectMapper cbor = objectMapper.copyWith(new CBORFactory());
+		ObjectMapper smile = objectMapper.copyWith(new SmileFactory());
+		// The books bypass the pre-encoded JSON catalog for these
+		assertThat(cbor.readValue(body("/api/books", MediaType.APPLICATION_CBOR), BookDto[].class)).containsExactly(books);
+		assertThat(smile.readValue(body("/api/books", SMILE), BookDto[].class)).containsExactly(books);
+		assertThat(smile.readValue(body("/api/students", SMILE), StudentDto[].class)).containsExactly(students);
+		assertThat(read(body("/api/books", ProtobufMessageConverter.PROTOBUF), listOf(BookDto.class))).isEqualTo(List.of(books));
+		assertThat(read(body("/api/students", ProtobufMessageConverter.PROTOBUF), listOf(StudentDto.class))).isEqualTo(List.of(students));
+
+		mockMvc.perform(get("/api/books").param("limit", "2").accept(ProtobufMessageConverter.PROTOBUF))
+				.andExpect(content().contentType(ProtobufMessageConverter.PROTOBUF));
+	}
+
+	@Test
+	void protobufKeepsMissingFieldsMissing() throws Exception {
+		InstagramProfile.User user = new InstagramProfile.User();
+		user.setUsername("sakshi_raghu_1c_");
+		user.setFullName("Sakshi");
+		InstagramProfile.EdgeFollowedBy followers = new InstagramProfile.EdgeFollowedBy();
+		followers.setCount(1234);
+		user.setEdgeFollowedBy(followers);
+		InstagramProfile.User decoded = (InstagramProfile.User) read(write(user), InstagramProfile.User.class);
+		assertThat(decoded).usingRecursiveComparison().isEqualTo(user);
+		assertThat(decoded.getBiography()).isNull();
+
+		StudentDto student = new StudentDto(7L, "Ada", null, null, "Mathematics", 0L);
+		assertThat(read(write(student), StudentDto.class)).isEqualTo(student);
+		StudentDto unsaved = new StudentDto(null, "Ada", "ada@example.com", null, null, null);
+		assertThat(read(write(unsaved), StudentDto.class)).isEqualTo(unsaved);
+
+		assertThatThrownBy(() -> write(List.of("not a message")))
+				.isInstanceOf(HttpMessageNotWritableException.class);
+	}
+
+	// Read with classes generated from api.proto, the way callers read it, so the converter can't drift from the schema
+	@Test
+	void protobufMatchesTheSchemaFieldByField() throws Exception {
+		BookDto[] books = objectMapper.readValue(body("/api/books", MediaType.APPLICATION_JSON), BookDto[].class);
+		StudentDto[] students = objectMapper.readValue(body("/api/students", MediaType.APPLICATION_JSON), StudentDto[].class);
+
+		List<Book> bookMessages = BookList.parseFrom(body("/api/books", ProtobufMessageConverter.PROTOBUF)).getBooksList();
+		assertThat(bookMessages).hasSameSizeAs(books);
+		for (int i = 0; i < books.length; i++) {
+			Book message = bookMessages.get(i);
+			assertThat(message.hasId() ? message.getId() : null).isEqualTo(books[i].id());
+			assertThat(orNull(message.getTitle())).isEqualTo(books[i].title());
+			assertThat(orNull(message.getAuthor())).isEqualTo(books[i].author());
+			assertThat(message.hasVersion() ? message.getVersion() : null).isEqualTo(books[i].version());
+		}
+
+		List<Student> studentMessages = StudentList.parseFrom(body("/api/students", ProtobufMessageConverter.PROTOBUF)).getStudentsList();
+		assertThat(studentMessages).hasSameSizeAs(students);
+		for (int i = 0; i < students.length; i++) {
+			Student message = studentMessages.get(i);
+			assertThat(message.hasId() ? message.getId() : null).isEqualTo(students[i].id());
+			assertThat(orNull(message.getName())).isEqualTo(students[i].name());
+			assertThat(orNull(message.getEmail())).isEqualTo(students[i].email());
+			assertThat(orNull(message.getPhone())).isEqualTo(students[i].phone());
+			assertThat(orNull(message.getCourse())).isEqualTo(students[i].course());
+			assertThat(message.hasVersion() ? message.getVersion() : null).isEqualTo(students[i].version());
+		}
+
+		InstagramProfile.User user = new InstagramProfile.User();
+		user.setUsername("sakshi_raghu_1c_");
+		user.setFullName("Sakshi");
+		user.setProfilePicUrlHd("https://example.com/p.jpg");
+		InstagramProfile.EdgeFollowedBy followers = new InstagramProfile.EdgeFollowedBy();
+		followers.setCount(1234);
+		user.setEdgeFollowedBy(followers);
+		InstagramUser userMessage = InstagramUser.parseFrom(write(user));
+		assertThat(userMessage.getUsername()).isEqualTo("sakshi_raghu_1c_");
+		assertThat(userMessage.getFullName()).isEqualTo("Sakshi");
+		assertThat(userMessage.getBiography()).isEmpty();
+		assertThat(userMessage.getProfilePicUrlHd()).isEqualTo("https://example.com/p.jpg");
+		assertThat(userMessage.hasFollowers()).isTrue();
+		assertThat(userMessage.getFollowers()).isEqualTo(1234);
+
+		// And the other way: what a caller's generated code writes, the converter reads
+		Student sent = Student.newBuilder().setId(7).setName("Ada").setPhone("123").setCourse("Mathematics").setVersion(2).build();
+		assertThat(read(sent.toByteArray(), StudentDto.class)).isEqualTo(new StudentDto(7L, "Ada", null, "123", "Mathematics", 2L));
+		Book sentBook = Book.newBuilder().setTitle("Dune").setAuthor("Frank Herbert").build();
+		assertThat(read(sentBook.toByteArray(), BookDto.class)).isEqualTo(new BookDto(null, "Dune", "Frank Herbert", null));
+	}
+
+	private static String orNull(String value) {
+		return value.isEmpty() ? null : value;
+	}
+
+	private byte[] body(String path, MediaType accept) throws Exception {
+		return mockMvc.perform(get(path).accept(accept))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(accept))
+				.andReturn().getResponse().getContentAsByteArray();
+	}
+
+	private byte[] write(Object value) throws Exception {
+		MockHttpOutputMessage out = new MockHttpOutputMessage();
+		protobuf.write(value, null, ProtobufMessageConverter.PROTOBUF, out);
+		return out.getBodyAsBytes();
+	}
+
+	private Object read(byte[] body, Type type) throws Exception {
+		return protobuf.read(type, null, new MockHttpInputMessage(body));
+	}
+
+	private static Type listOf(Class<?> element) {
+		return ResolvableType.forClassWithGenerics(List.class, element).getType();
+	}
+}
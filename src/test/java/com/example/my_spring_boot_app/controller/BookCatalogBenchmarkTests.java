@@ -0,0 +1,124 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.service.BookService;
+
+/**
+ * GET /api/books with the list serialized per request (from the list cache, so no database work either way)
+ * versus the pre-encoded catalog snapshot, plain and gzipped. Reports requests per second, response bytes,
+ * and the CPU time and heap allocation of the server's request threads per request.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=BookCatalogBenchmarkTests}.
+ */
+@Tag("benchmark")
+class BookCatalogBenchmarkTests {
+
+	private static final int CLIENTS = Integer.getInteger("bench.clients", 4);
+	private static final int REQUESTS = Integer.getInteger("bench.requests", 10_000);
+	private static final int BOOKS = Integer.getInteger("bench.books", 1000);
+
+	@Test
+	void snapshotVersusSerializingPerRequest() throws Exception {
+		Result serialized = run(false, false);
+		Result snapshot = run(true, false);
+		Result gzipped = run(true, true);
+
+		System.out.printf("%d clients, %d x GET /api/books, %d books%n", CLIENTS, REQUESTS, BOOKS);
+		System.out.println("serialized per request: " + serialized);
+		System.out.println("catalog snapshot:       " + snapshot);
+		System.out.println("snapshot, gzip:         " + gzipped);
+	}
+
+	private static Result run(boolean catalog, boolean gzip) throws Exception {
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(MySpringBootAppApplication.class)
+				.run("--spring.profiles.active=loadtest", "--book-catalog.enabled=" + catalog)) {
+			BookService books = app.getBean(BookService.class);
+			for (int i = 0; i < BOOKS; i++) {
+				Book book = new Book();
+				book.setTitle("Benchmark Volume " + i);
+				book.setAuthor("Author " + (i % 97));
+				books.saveBook(book);
+			}
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/books"));
+			if (gzip) {
+				request.header("Accept-Encoding", "gzip");
+			}
+			drive(request.build(), REQUESTS / 4);
+			return drive(request.build(), REQUESTS);
+		}
+	}
+
+	private static Result drive(HttpRequest request, int requests) throws Exception {
+		AtomicInteger remaining = new AtomicInteger(requests);
+		LongAdder bytes = new LongAdder();
+		long[] before = requestThreadCpuAndAllocation();
+		long start = System.nanoTime();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < CLIENTS; i++) {
+				workers.add(clients.submit(() -> {
+					while (remaining.getAndDecrement() > 0) {
+						HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+						assertThat(response.statusCode()).isEqualTo(200);
+						bytes.add(response.body().length);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long[] after = requestThreadCpuAndAllocation();
+		return new Result(requests / seconds, bytes.sum() / (double) requests,
+				(after[0] - before[0]) / 1000.0 / requests, (after[1] - before[1]) / (double) requests);
+	}
+
+	// CPU time (ns) and bytes allocated by Tomcat's request threads ("http-nio-<port>-exec-<n>")
+	private static long[] requestThreadCpuAndAllocation() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long cpu = 0;
+		long allocated = 0;
+		for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+			if (info != null && info.getThreadName().contains("-exec-")) {
+				cpu += Math.max(0, threads.getThreadCpuTime(info.getThreadId()));
+				allocated += Math.max(0, threads.getThreadAllocatedBytes(info.getThreadId()));
+			}
+		}
+		return new long[] {cpu, allocated};
+	}
+
+	record Result(double requestsPerSecond, double bytesPerRequest, double cpuMicrosPerRequest, double allocatedPerRequest) {
+
+		@Override
+		public String toString() {
+			return String.format("%,8.0f req/s, %,8.0f body bytes/req, %7.1f us request-thread CPU/req, %,10.0f bytes allocated/req",
+					requestsPerSecond, bytesPerRequest, cpuMicrosPerRequest, allocatedPerRequest);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Filters off: the login in front of the API doesn't matter here
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class BookCatalogTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookCatalog bookCatalog;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void catalogIsTheSameBytesAndTagAsSerializingTheList() throws Exception {
+		BookDto saved = bookService.saveBook(book("Snapshot Basics"));
+
+		MockHttpServletResponse response = mockMvc.perform(get("/api/books")).andExpect(status().isOk()).andReturn().getResponse();
+
+		// Other test contexts share the in-memory database, so compare against what was sent rather than a fresh read
+		List<BookDto> books = List.of(objectMapper.readValue(response.getContentAsByteArray(), BookDto[].class));
+		assertThat(books).contains(saved);
+		assertThat(books).extracting(BookDto::id).isSorted();
+		assertThat(response.getContentAsByteArray()).isEqualTo(objectMapper.writeValueAsBytes(books));
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETags.ofList(books, BookDto::id, BookDto::version));
+		// Paged requests still take the regular path
+		mockMvc.perform(get("/api/books").param("limit", "2")).andExpect(status().isOk());
+	}
+
+	@Test
+	void aCommittedSaveReplacesTheSnapshot() throws Exception {
+		String before = mockMvc.perform(get("/api/books")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, before)).andExpect(status().isNotModified());
+
+		BookDto saved = bookService.saveBook(book("Fresh Off The Press"));
+
+		MockHttpServletResponse response = mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+		BookDto[] books = objectMapper.readValue(response.getContentAsByteArray(), BookDto[].class);
+		assertThat(books).contains(saved);
+		assertThat(books).extracting(BookDto::id).isSorted();
+
+		Book renamed = book("Fresh Off The Press, 2nd ed.");
+		renamed.setId(saved.id());
+		renamed.setVersion(saved.version());
+		bookService.saveBook(renamed);
+		assertThat(objectMapper.readValue(bookCatalog.current().json(), BookDto[].class))
+				.filteredOn(book -> book.id().equals(saved.id()))
+				.extracting(BookDto::title)
+				.containsExactly("Fresh Off The Press, 2nd ed.");
+	}
+
+	@Test
+	void gzipCopyForClientsThatAcceptIt() throws Exception {
+		byte[] json = "[{\"id\":1,\"title\":\"Dune\",\"author\":\"Frank Herbert\"}]".getBytes();
+		BookCatalog.Snapshot snapshot = new BookCatalog.Snapshot(json, "\"l1f\"", true);
+
+		ResponseEntity<byte[]> gzipped = snapshot.toResponse("gzip, deflate, br");
+		assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gzipped.getHeaders().getETag()).isEqualTo("\"l1f-gzip\"");
+		assertThat(gzipped.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+			assertThat(in.readAllBytes()).isEqualTo(json);
+		}
+		// Compressed once per snapshot
+		assertThat(snapshot.toResponse("gzip").getBody()).isSameAs(gzipped.getBody());
+
+		ResponseEntity<byte[]> plain = snapshot.toResponse(null);
+		assertThat(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(plain.getHeaders().getETag()).isEqualTo("\"l1f\"");
+		assertThat(plain.getBody()).isSameAs(json);
+	}
+
+	private static Book book(String title) {
+		Book book = new Book();
+		book.setTitle(title);
+		book.setAuthor("Test Author");
+		return book;
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.service.StudentImportService;
+import com.example.my_spring_boot_app.service.StudentService;
+
+/**
+ * Polling clients with and without ETags: each client keeps re-reading the same students and list pages,
+ * while 1% of the requests change a student. Reports response bytes per request and the CPU time the
+ * server's request threads spent per request (client threads in the same JVM aren't counted).
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=ConditionalGetBenchmarkTests}.
+ */
+@Tag("benchmark")
+class ConditionalGetBenchmarkTests {
+
+	private static final int CLIENTS = Integer.getInteger("bench.clients", 8);
+	private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+	private static final int STUDENTS = 1000;
+
+	@Test
+	void etagsSaveBandwidthAndCpu() throws Exception {
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(MySpringBootAppApplication.class)
+				.run("--spring.profiles.active=loadtest")) {
+			app.getBean(StudentImportService.class).importNdjson(new ByteArrayInputStream(IntStream.range(0, STUDENTS)
+					.mapToObj(i -> "{\"name\":\"Student " + i + "\",\"email\":\"student" + i + "@example.com\",\"course\":\"Polling\"}")
+					.collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8)));
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			StudentService students = app.getBean(StudentService.class);
+
+			poll(port, students, false, REQUESTS / 4);
+			Result plain = poll(port, students, false, REQUESTS);
+			poll(port, students, true, REQUESTS / 4);
+			Result conditional = poll(port, students, true, REQUESTS);
+
+			System.out.printf("%d clients, %d requests, GET /api/students/{id} and ?after=&limit=50, 1%% writes%n", CLIENTS, REQUESTS);
+			System.out.println("unconditional: " + plain);
+			System.out.println("If-None-Match: " + conditional);
+			assertThat(plain.errors()).isZero();
+			assertThat(conditional.errors()).isZero();
+			assertThat(conditional.notModified()).isPositive();
+		}
+	}
+
+	private Result poll(int port, StudentService students, boolean conditional, int requests) throws Exception {
+		Map<String, String> etags = new ConcurrentHashMap<>();
+		AtomicInteger remaining = new AtomicInteger(requests);
+		AtomicInteger errors = new AtomicInteger();
+		AtomicInteger notModified = new AtomicInteger();
+		LongAdder bytes = new LongAdder();
+		long cpuBefore = requestThreadCpu();
+		long start = System.nanoTime();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < CLIENTS; i++) {
+				workers.add(clients.submit(() -> {
+					while (remaining.getAndDecrement() > 0) {
+						ThreadLocalRandom random = ThreadLocalRandom.current();
+						// Ids start at 1 in a fresh database; a small hot set, like dashboards polling
+						long id = 1 + random.nextInt(100);
+						if (random.nextInt(100) == 0) {
+							students.patchStudent(id, Map.of("phone", Long.toString(random.nextLong(1_000_000))), null);
+							continue;
+						}
+						String path = random.nextBoolean() ? "/api/students/" + id : "/api/students?after=" + (id / 50 * 50) + "&limit=50";
+						HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path));
+						String etag = etags.get(path);
+						if (conditional && etag != null) {
+							request.header("If-None-Match", etag);
+						}
+						HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+						bytes.add(response.body().length);
+						response.headers().firstValue("ETag").ifPresent(tag -> etags.put(path, tag));
+						if (response.statusCode() == 304) {
+							notModified.incrementAndGet();
+						} else if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return new Result(requests / seconds, bytes.sum() / (double) requests,
+				(requestThreadCpu() - cpuBefore) / 1000.0 / requests, notModified.get(), errors.get());
+	}
+
+	// CPU time of Tomcat's request threads ("http-nio-<port>-exec-<n>"), in nanoseconds
+	private static long requestThreadCpu() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long total = 0;
+		for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+			if (info != null && info.getThreadName().contains("-exec-")) {
+				total += Math.max(0, threads.getThreadCpuTime(info.getThreadId()));
+			}
+		}
+		return total;
+	}
+
+	record Result(double requestsPerSecond, double bytesPerRequest, double cpuMicrosPerRequest, int notModified, int errors) {
+
+		@Override
+		public String toString() {
+			return String.format("%,.0f req/s, %,.0f body bytes/req, %.1f us request-thread CPU/req, %d not modified, %d errors",
+					requestsPerSecond, bytesPerRequest, cpuMicrosPerRequest, notModified, errors);
+		}
+	}
+}
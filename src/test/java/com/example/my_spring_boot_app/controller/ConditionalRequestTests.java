@@ -0,0 +1,148 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+import com.example.my_spring_boot_app.service.BookService;
+import com.example.my_spring_boot_app.service.StudentService;
+
+// Filters off: conditional request handling is all in the controllers, the login in front of them doesn't matter here
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class ConditionalRequestTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private BookService bookService;
+
+	@Test
+	void unchangedStudentIsNotModifiedUntilItChanges() throws Exception {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+
+		mockMvc.perform(get("/api/students/{id}", saved.id()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+		mockMvc.perform(get("/api/students/{id}", saved.id()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(content().string(""));
+
+		studentService.patchStudent(saved.id(), Map.of("phone", "123"), null);
+
+		mockMvc.perform(get("/api/students/{id}", saved.id()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+	}
+
+	@Test
+	void listTagChangesWithTheRowsOnIt() throws Exception {
+		studentService.createStudent(student("Asha"));
+		String etag = mockMvc.perform(get("/api/students"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/students").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		studentService.createStudent(student("Ben"));
+
+		String changed = mockMvc.perform(get("/api/students").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotEqualTo(etag);
+	}
+
+	@Test
+	void ifMatchGuardsUpdatesAndDeletes() throws Exception {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+		String body = "{\"name\":\"Asha K\",\"course\":\"Physics\"}";
+
+		mockMvc.perform(put("/api/students/{id}", saved.id()).header(HttpHeaders.IF_MATCH, "\"7\"")
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/students/{id}", saved.id()).header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+		mockMvc.perform(delete("/api/students/{id}", saved.id()).header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isPreconditionFailed());
+		assertThat(studentRepository.existsById(saved.id())).isTrue();
+		mockMvc.perform(delete("/api/students/{id}", saved.id()).header(HttpHeaders.IF_MATCH, "\"1\""))
+				.andExpect(status().isOk());
+		assertThat(studentRepository.existsById(saved.id())).isFalse();
+	}
+
+	@Test
+	void updateWithoutIfMatchStillReturnsTheNewVersion() throws Exception {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+		studentService.patchStudent(saved.id(), Map.of("phone", "123"), null);
+
+		mockMvc.perform(put("/api/students/{id}", saved.id())
+						.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Asha K\",\"course\":\"Physics\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+				.andExpect(jsonPath("$.version").value(2));
+	}
+
+	@Test
+	void emptyPatchIsRejectedWithoutAWrite() throws Exception {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+
+		mockMvc.perform(patch("/api/students/{id}", saved.id()).contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+		assertThat(studentRepository.findVersionById(saved.id())).contains(0L);
+	}
+
+	@Test
+	void booksCarryTheirVersionToo() throws Exception {
+		Book book = new Book();
+		book.setTitle("Dune");
+		book.setAuthor("Frank Herbert");
+		BookDto saved = bookService.saveBook(book);
+
+		mockMvc.perform(get("/api/books/{id}", saved.id()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/books/{id}", saved.id()).header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+	}
+
+	private static Student student(String name) {
+		Student student = new Student();
+		student.setName(name);
+		student.setCourse("Conditional requests");
+		return student;
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Filters off: the login in front of the API doesn't matter here
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class CreateControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	// Without write-behind a create is answered on the request's own dispatch, no async round trip
+	@Test
+	void createsAreAnsweredWithoutGoingAsync() throws Exception {
+		mockMvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Asha\",\"course\":\"Maths\"}"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").isNumber())
+				.andExpect(jsonPath("$.version").value(0));
+		mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Dune\",\"author\":\"Frank Herbert\"}"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").isNumber());
+	}
+}
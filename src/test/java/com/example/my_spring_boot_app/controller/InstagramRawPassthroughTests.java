@@ -0,0 +1,118 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.my_spring_boot_app.config.InstagramProperties;
+import com.example.my_spring_boot_app.service.InstagramService;
+import com.example.my_spring_boot_app.support.InstagramStubServer;
+
+class InstagramRawPassthroughTests {
+
+	private final InstagramStubServer stub = new InstagramStubServer();
+	private InstagramService instagramService;
+
+	@AfterEach
+	void tearDown() {
+		if (instagramService != null) {
+			instagramService.close();
+		}
+		stub.close();
+	}
+
+	@Test
+	void passthroughRelaysTheUpstreamBytesUnchanged() throws IOException {
+		InstagramController controller = controller(true);
+
+		ResponseEntity<StreamingResponseBody> response = controller.getRawProfile("someone", null).block();
+
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(response.getHeaders().getContentLength()).isEqualTo(stub.profile().length);
+		assertThat(write(response)).isEqualTo(stub.profile());
+	}
+
+	@Test
+	void passthroughRelaysGzipWhenTheClientAcceptsIt() throws IOException {
+		InstagramController controller = controller(true);
+
+		ResponseEntity<StreamingResponseBody> response = controller.getRawProfile("someone", "gzip, deflate").block();
+
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		byte[] compressed = write(response);
+		assertThat(compressed.length).isLessThan(stub.profile().length);
+		try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			assertThat(gunzip.readAllBytes()).isEqualTo(stub.profile());
+		}
+	}
+
+	@Test
+	void passthroughAnswersEmptyJsonForUnknownUsers() throws IOException {
+		InstagramController controller = controller(true);
+
+		ResponseEntity<StreamingResponseBody> response = controller.getRawProfile("missing", null).block();
+
+		assertThat(new String(write(response))).isEqualTo("{}");
+	}
+
+	// Heap allocated across all threads per /raw request, buffered String versus passthrough
+	@Test
+	@Tag("benchmark")
+	void passthroughAllocatesLessPerRequest() throws IOException {
+		int requests = 2_000;
+		long buffered = allocatedPerRequest(controller(false), requests);
+		instagramService.close();
+		long passthrough = allocatedPerRequest(controller(true), requests);
+
+		System.out.printf("Payload %,d bytes: buffered %,d bytes/request, passthrough %,d bytes/request%n",
+				stub.profile().length, buffered, passthrough);
+		assertThat(passthrough).isLessThan(buffered);
+	}
+
+	private long allocatedPerRequest(InstagramController controller, int requests) throws IOException {
+		// Warm up connections, codecs and JIT before measuring
+		for (int i = 0; i < 500; i++) {
+			controller.getRawProfile("user" + i, null).block().getBody().writeTo(OutputStream.nullOutputStream());
+		}
+		long before = allocatedBytes();
+		for (int i = 0; i < requests; i++) {
+			controller.getRawProfile("user" + i, null).block().getBody().writeTo(OutputStream.nullOutputStream());
+		}
+		return (allocatedBytes() - before) / requests;
+	}
+
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(b -> b > 0).sum();
+	}
+
+	private InstagramController controller(boolean passthrough) {
+		InstagramProperties properties = new InstagramProperties();
+		properties.setBaseUrl(stub.baseUrl());
+		// Measure the upstream path on every request, not cache hits
+		properties.getCache().setEnabled(false);
+		properties.getRaw().setPassthrough(passthrough);
+		instagramService = new InstagramService(WebClient.builder(), properties);
+		return new InstagramController(instagramService, properties);
+	}
+
+	private static byte[] write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().writeTo(out);
+		return out.toByteArray();
+	}
+}
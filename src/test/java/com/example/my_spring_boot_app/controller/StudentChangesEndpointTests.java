@@ -0,0 +1,96 @@
+package com.example.my_spring_boot_app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.security.TestTokens;
+import com.example.my_spring_boot_app.service.StudentChangeFeed;
+import com.example.my_spring_boot_app.service.StudentService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "change-feed.heartbeat=100ms")
+class StudentChangesEndpointTests {
+
+	private static final ParameterizedTypeReference<ServerSentEvent<StudentChange>> EVENT = new ParameterizedTypeReference<>() {
+	};
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentChangeFeed changeFeed;
+
+	@Test
+	void writesArriveAsEventsAndLastEventIdResumes() throws Exception {
+		WebClient client = WebClient.builder()
+				.baseUrl("http://localhost:" + port)
+				.defaultHeader(HttpHeaders.AUTHORIZATION, TestTokens.bearer("feed"))
+				.build();
+
+		CompletableFuture<List<ServerSentEvent<StudentChange>>> live = client.get().uri("/api/students/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.retrieve()
+				.bodyToFlux(EVENT)
+				.filter(event -> event.data() != null)
+				.take(1)
+				.collectList()
+				.toFuture();
+		awaitSubscribers(1);
+		StudentDto created = studentService.createStudent(student("Feed"));
+
+		ServerSentEvent<StudentChange> event = live.get(10, TimeUnit.SECONDS).get(0);
+		assertThat(event.event()).isEqualTo("created");
+		assertThat(event.data().student()).isEqualTo(created);
+		assertThat(event.id()).isEqualTo(Long.toString(event.data().offset()));
+
+		// Deleted while nobody was listening: handed over on reconnect, after a heartbeat or two on the way
+		studentService.deleteStudent(created.id(), null);
+		List<ServerSentEvent<StudentChange>> resumed = client.get().uri("/api/students/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.header("Last-Event-ID", event.id())
+				.retrieve()
+				.bodyToFlux(EVENT)
+				.take(Duration.ofMillis(500))
+				.collectList()
+				.block(Duration.ofSeconds(10));
+
+		assertThat(resumed).filteredOn(sse -> sse.data() != null).singleElement()
+				.satisfies(sse -> assertThat(sse.data().type()).isEqualTo(StudentChange.Type.DELETED))
+				.satisfies(sse -> assertThat(sse.data().id()).isEqualTo(created.id()));
+		assertThat(resumed).anyMatch(sse -> sse.data() == null && sse.comment() != null);
+	}
+
+	private void awaitSubscribers(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (changeFeed.getSubscriberCount() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static Student student(String name) {
+		Student student = new Student();
+		student.setName(name);
+		student.setCourse("Change feed");
+		return student;
+	}
+}
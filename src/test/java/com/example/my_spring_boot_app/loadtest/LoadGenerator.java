@@ -0,0 +1,161 @@
+package com.example.my_spring_boot_app.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-loop load generator: requests start on a fixed schedule at the target rate, whether or not the
+ * earlier ones have come back. Latency is measured from when a request was due to start rather than from
+ * when it was actually sent, so a stalled server shows up in the percentiles instead of silently lowering
+ * the request rate (coordinated omission).
+ */
+final class LoadGenerator {
+
+	private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	private final HttpClient http;
+	private final URI baseUri;
+	private final WorkloadScript script;
+	private final Map<String, Supplier<String>> variables;
+	private final int maxInFlight;
+
+	LoadGenerator(HttpClient http, URI baseUri, WorkloadScript script, Map<String, Supplier<String>> variables, int maxInFlight) {
+		this.http = http;
+		this.baseUri = baseUri;
+		this.script = script;
+		this.variables = variables;
+		this.maxInFlight = maxInFlight;
+	}
+
+	Report run(double requestsPerSecond, Duration duration) throws InterruptedException {
+		Map<String, StepStats> stats = new LinkedHashMap<>();
+		for (WorkloadScript.Step step : script.steps()) {
+			stats.put(step.name(), new StepStats());
+		}
+		long interval = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+		long count = (long) (requestsPerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+		// Caps memory when the server falls far behind; the wait still counts towards the latency
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		long start = System.nanoTime();
+		try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long i = 0; i < count; i++) {
+				long due = start + i * interval;
+				long wait = due - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				inFlight.acquire();
+				WorkloadScript.Step step = script.pick();
+				requests.execute(() -> {
+					try {
+						send(step, due, stats.get(step.name()));
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+		}
+		return new Report(stats, (System.nanoTime() - start) / 1e9);
+	}
+
+	private void send(WorkloadScript.Step step, long due, StepStats stats) {
+		HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(WorkloadScript.fill(step.path(), variables)))
+				.timeout(REQUEST_TIMEOUT);
+		String body = WorkloadScript.fill(step.body(), variables);
+		if (body != null) {
+			request.header("Content-Type", "application/json").method(step.method(), HttpRequest.BodyPublishers.ofString(body));
+		} else {
+			request.method(step.method(), HttpRequest.BodyPublishers.noBody());
+		}
+		boolean ok;
+		try {
+			HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+			ok = response.statusCode() < 400;
+		} catch (IOException e) {
+			ok = false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+		stats.latency.recordValue(Math.min(Math.max(micros, 1), HIGHEST_MICROS));
+		if (!ok) {
+			stats.errors.increment();
+		}
+	}
+
+	static final class StepStats {
+
+		final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+		final LongAdder errors = new LongAdder();
+	}
+
+	record Report(Map<String, StepStats> steps, double seconds) {
+
+		Histogram total() {
+			Histogram total = new Histogram(HIGHEST_MICROS, 3);
+			steps.values().forEach(stats -> total.add(stats.latency));
+			return total;
+		}
+
+		long totalErrors() {
+			return steps.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+		}
+
+		void print(PrintStream out) {
+			out.printf("%-16s %8s %8s %9s %9s %9s %9s %9s %9s%n",
+					"endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+			steps.forEach((name, stats) -> printRow(out, name, stats.latency, stats.errors.sum()));
+			printRow(out, "total", total(), totalErrors());
+		}
+
+		private void printRow(PrintStream out, String name, Histogram latency, long errors) {
+			out.printf("%-16s %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latency.getTotalCount(), errors,
+					latency.getTotalCount() / seconds,
+					millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+					latency.getMaxValue() / 1000.0);
+		}
+
+		// Full percentile distributions, one .hgrm per endpoint, for plotting or diffing against an earlier run
+		void writeHistograms(Path directory) {
+			try {
+				Files.createDirectories(directory);
+				for (Map.Entry<String, StepStats> step : steps.entrySet()) {
+					try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(step.getKey() + ".hgrm")))) {
+						step.getValue().latency.outputPercentileDistribution(out, 1000.0);
+					}
+				}
+				try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("total.hgrm")))) {
+					total().outputPercentileDistribution(out, 1000.0);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		static double millis(Histogram latency, double percentile) {
+			return latency.getValueAtPercentile(percentile) / 1000.0;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.my_spring_boot_app.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.support.InstagramStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * End-to-end load test that needs nothing but the JDK: the application runs with the "loadtest" profile
+ * (embedded H2), instagram.com is replaced by {@link InstagramStubServer}, and {@link LoadGenerator} drives
+ * the mix in the workload script at a fixed request rate. Prints throughput and p50/p90/p99/p99.9 per
+ * endpoint and writes the full distributions to target/loadtest/*.hgrm.
+ * <p>
+ * Run with {@code ./mvnw test -Ploadtest}. Knobs, all optional ({@code -Dname=value}):
+ * <ul>
+ * <li>{@code loadtest.rps} (200), {@code loadtest.seconds} (30), {@code loadtest.warmup-seconds} (10)</li>
+ * <li>{@code loadtest.script}: workload file or classpath resource (loadtest/workload.txt)</li>
+ * <li>{@code loadtest.students} (1000), {@code loadtest.books} (1000), {@code loadtest.usernames} (2000)</li>
+ * <li>{@code loadtest.instagram.latency} (50ms), {@code loadtest.instagram.error-rate} (0.01)</li>
+ * <li>{@code loadtest.target}: base URL of an instance that's already running; no app or stub is started</li>
+ * <li>{@code loadtest.max-p99} (e.g. 200ms) and {@code loadtest.max-error-rate} (e.g. 0.02): fail the run
+ * when any endpoint is slower or fails more often than this</li>
+ * </ul>
+ */
+@Tag("loadtest")
+class LoadTests {
+
+	private static final double RPS = Double.parseDouble(System.getProperty("loadtest.rps", "200"));
+	private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+	private static final String SCRIPT = System.getProperty("loadtest.script", "loadtest/workload.txt");
+	private static final int STUDENTS = Integer.getInteger("loadtest.students", 1000);
+	private static final int BOOKS = Integer.getInteger("loadtest.books", 1000);
+	private static final int USERNAMES = Integer.getInteger("loadtest.usernames", 2000);
+	private static final Duration INSTAGRAM_LATENCY = DurationStyle.detectAndParse(System.getProperty("loadtest.instagram.latency", "50ms"));
+	private static final double INSTAGRAM_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.instagram.error-rate", "0.01"));
+	private static final String TARGET = System.getProperty("loadtest.target");
+	private static final int MAX_IN_FLIGHT = 2000;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void workload() throws Exception {
+		WorkloadScript script = WorkloadScript.load(SCRIPT);
+		try (InstagramStubServer instagram = TARGET == null ? startInstagramStub() : null;
+				ConfigurableApplicationContext app = TARGET == null ? startApplication(instagram) : null;
+				ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+			URI baseUri = URI.create(app != null
+					? "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort() + "/"
+					: TARGET.endsWith("/") ? TARGET : TARGET + "/");
+
+			long[] studentIds = seed(http, baseUri.resolve("api/students"), STUDENTS,
+					i -> "{\"name\":\"Seed " + i + "\",\"email\":\"seed" + i + "@example.com\",\"course\":\"Load\"}");
+			long[] bookIds = seed(http, baseUri.resolve("api/books"), BOOKS,
+					i -> "{\"title\":\"Collected works volume " + i + "\",\"author\":\"Author " + (i % 100) + "\"}");
+			AtomicLong sequence = new AtomicLong();
+			Map<String, Supplier<String>> variables = Map.of(
+					"student", () -> Long.toString(studentIds[ThreadLocalRandom.current().nextInt(studentIds.length)]),
+					"book", () -> Long.toString(bookIds[ThreadLocalRandom.current().nextInt(bookIds.length)]),
+					"username", () -> "user" + ThreadLocalRandom.current().nextInt(USERNAMES),
+					"seq", () -> Long.toString(sequence.incrementAndGet()));
+			LoadGenerator generator = new LoadGenerator(http, baseUri, script, variables, MAX_IN_FLIGHT);
+
+			generator.run(RPS, WARMUP);
+			LoadGenerator.Report report = generator.run(RPS, MEASURE);
+
+			System.out.printf("%n%s at %.0f req/s for %ds (%s)%n", baseUri, RPS, MEASURE.toSeconds(), SCRIPT);
+			report.print(System.out);
+			report.writeHistograms(Path.of("target", "loadtest"));
+			assertWithinLimits(report);
+		}
+	}
+
+	private static InstagramStubServer startInstagramStub() {
+		return new InstagramStubServer().latency(INSTAGRAM_LATENCY).errorRate(INSTAGRAM_ERROR_RATE, 503);
+	}
+
+	private static ConfigurableApplicationContext startApplication(InstagramStubServer instagram) {
+		// Command-line arguments, so they win over the "test" profile surefire activates
+		return new SpringApplicationBuilder(MySpringBootAppApplication.class)
+				.run("--spring.profiles.active=loadtest", "--instagram.base-url=" + instagram.baseUrl());
+	}
+
+	// Creates rows through the API (so it works against loadtest.target too) and returns their ids
+	private long[] seed(HttpClient http, URI uri, int count, IntFunction<String> body) throws IOException, InterruptedException {
+		long[] ids = new long[count];
+		for (int i = 0; i < count; i++) {
+			HttpRequest request = HttpRequest.newBuilder(uri)
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body.apply(i)))
+					.build();
+			HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+			assertThat(response.statusCode()).as("seeding %s", uri).isEqualTo(200);
+			ids[i] = objectMapper.readTree(response.body()).get("id").asLong();
+		}
+		return ids;
+	}
+
+	private static void assertWithinLimits(LoadGenerator.Report report) {
+		String maxP99 = System.getProperty("loadtest.max-p99");
+		String maxErrorRate = System.getProperty("loadtest.max-error-rate");
+		report.steps().forEach((name, stats) -> {
+			Histogram latency = stats.latency;
+			assertThat(latency.getTotalCount()).as("requests sent to %s", name).isPositive();
+			if (maxP99 != null) {
+				assertThat(LoadGenerator.Report.millis(latency, 99)).as("%s p99 (ms)", name)
+						.isLessThanOrEqualTo(DurationStyle.detectAndParse(maxP99).toMillis());
+			}
+			if (maxErrorRate != null) {
+				assertThat(stats.errors.sum() / (double) latency.getTotalCount()).as("%s error rate", name)
+						.isLessThanOrEqualTo(Double.parseDouble(maxErrorRate));
+			}
+		});
+	}
+}
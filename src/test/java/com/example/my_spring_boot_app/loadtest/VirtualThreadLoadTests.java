@@ -0,0 +1,190 @@
+package com.example.my_spring_boot_app.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.service.StudentImportService;
+
+/**
+ * Starts the application twice, once on Tomcat's platform-thread pool and once in virtual-thread
+ * mode, and drives GET /api/students with the same number of concurrent clients. Every JDBC
+ * statement gets {@link #DB_LATENCY} added, standing in for the round trip to a real database.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=VirtualThreadLoadTests}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadTests {
+
+	private static final int CLIENTS = Integer.getInteger("bench.clients", 200);
+	private static final int TOMCAT_THREADS = 20;
+	private static final int POOL_SIZE = 100;
+	private static final Duration DB_LATENCY = Duration.ofMillis(5);
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("bench.seconds", 15));
+
+	@Test
+	void virtualThreadsAreNotCappedByTheTomcatPool() throws Exception {
+		Result platform = run(false);
+		Result virtual = run(true);
+
+		System.out.printf("%d clients, %d Tomcat threads, %d connections, %dms per statement%n",
+				CLIENTS, TOMCAT_THREADS, POOL_SIZE, DB_LATENCY.toMillis());
+		System.out.println("platform: " + platform);
+		System.out.println("virtual:  " + virtual);
+		assertThat(platform.errors()).isZero();
+		assertThat(virtual.errors()).isZero();
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(MySpringBootAppApplication.class, SimulatedDatabaseLatency.class)
+				.properties(
+						"server.port=0",
+						"server.tomcat.threads.max=" + TOMCAT_THREADS,
+						"spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						"spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+						// Measure the data path only, without a login in front of it
+						"jwt.enabled=false",
+						"logging.level.root=WARN");
+		if (virtualThreads) {
+			builder.profiles("virtual");
+		}
+		try (ConfigurableApplicationContext app = builder.run()) {
+			app.getBean(StudentImportService.class).importNdjson(new ByteArrayInputStream(IntStream.range(0, 1000)
+					.mapToObj(i -> "{\"name\":\"Student " + i + "\",\"course\":\"Load\"}")
+					.collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8)));
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			URI uri = URI.create("http://127.0.0.1:" + port + "/api/students?limit=20");
+			drive(uri, WARMUP);
+			return drive(uri, MEASURE);
+		}
+	}
+
+	private Result drive(URI uri, Duration duration) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri).build();
+		AtomicInteger errors = new AtomicInteger();
+		long deadline = System.nanoTime() + duration.toNanos();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+			List<Future<long[]>> workers = new ArrayList<>();
+			for (int i = 0; i < CLIENTS; i++) {
+				workers.add(clients.submit(() -> {
+					long[] latencies = new long[1024];
+					int count = 0;
+					while (System.nanoTime() < deadline) {
+						long start = System.nanoTime();
+						HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+						if (count == latencies.length) {
+							latencies = Arrays.copyOf(latencies, count * 2);
+						}
+						latencies[count++] = System.nanoTime() - start;
+					}
+					return Arrays.copyOf(latencies, count);
+				}));
+			}
+			List<long[]> all = new ArrayList<>();
+			for (Future<long[]> worker : workers) {
+				all.add(worker.get());
+			}
+			long[] latencies = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+			return new Result(latencies.length / (double) duration.toSeconds(),
+					percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get());
+		}
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000.0;
+	}
+
+	record Result(double requestsPerSecond, double p50Millis, double p99Millis, int errors) {
+
+		@Override
+		public String toString() {
+			return String.format("%,.0f req/s, p50 %.1fms, p99 %.1fms, %d errors",
+					requestsPerSecond, p50Millis, p99Millis, errors);
+		}
+	}
+
+	// Adds a fixed delay to every statement execution, like a database on the other side of a network
+	@Configuration(proxyBeanMethods = false)
+	static class SimulatedDatabaseLatency {
+
+		@Bean
+		static BeanPostProcessor simulatedDatabaseLatencyPostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return new DelegatingDataSource(dataSource) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							return delayed(super.getConnection(), Connection.class);
+						}
+					};
+				}
+			};
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T delayed(Object target, Class<T> type) {
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+				if (method.getName().startsWith("execute")) {
+					Thread.sleep(DB_LATENCY);
+				}
+				try {
+					Object result = method.invoke(target, args);
+					if (result instanceof PreparedStatement statement) {
+						return delayed(statement, PreparedStatement.class);
+					}
+					if (result instanceof Statement statement) {
+						return delayed(statement, Statement.class);
+					}
+					return result;
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				}
+			});
+		}
+	}
+}
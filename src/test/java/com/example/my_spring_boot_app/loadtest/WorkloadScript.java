@@ -0,0 +1,89 @@
+package com.example.my_spring_boot_app.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * The request mix for {@link LoadTests}, read from a plain-text script (see {@code loadtest/workload.txt}).
+ * Each line is {@code <weight> <name> <METHOD> <path> [JSON body]}; blank lines and {@code #} comments are skipped.
+ */
+record WorkloadScript(List<Step> steps, int totalWeight) {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
+	// A classpath resource, or a file when the location exists on disk
+	static WorkloadScript load(String location) {
+		Resource resource = new FileSystemResource(location);
+		if (!resource.exists()) {
+			resource = new ClassPathResource(location);
+		}
+		try {
+			return parse(resource.getContentAsString(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Can't read workload script " + location, e);
+		}
+	}
+
+	static WorkloadScript parse(String script) {
+		List<Step> steps = new ArrayList<>();
+		int totalWeight = 0;
+		for (String line : script.split("\\R")) {
+			line = line.strip();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] parts = line.split("\\s+", 5);
+			if (parts.length < 4) {
+				throw new IllegalArgumentException("Expected <weight> <name> <METHOD> <path> [body]: " + line);
+			}
+			int weight = Integer.parseInt(parts[0]);
+			steps.add(new Step(parts[1], parts[2], parts[3], parts.length == 5 ? parts[4] : null, weight));
+			totalWeight += weight;
+		}
+		if (totalWeight <= 0) {
+			throw new IllegalArgumentException("Workload script has no steps");
+		}
+		return new WorkloadScript(List.copyOf(steps), totalWeight);
+	}
+
+	Step pick() {
+		int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Step step : steps) {
+			ticket -= step.weight();
+			if (ticket < 0) {
+				return step;
+			}
+		}
+		throw new IllegalStateException("unreachable");
+	}
+
+	// Replaces {name} with a fresh value from variables.get(name) on every occurrence; JSON braces don't match \{\w+}
+	static String fill(String template, Map<String, Supplier<String>> variables) {
+		if (template == null || template.indexOf('{') < 0) {
+			return template;
+		}
+		Matcher matcher = PLACEHOLDER.matcher(template);
+		StringBuilder out = new StringBuilder(template.length() + 16);
+		while (matcher.find()) {
+			Supplier<String> value = variables.get(matcher.group(1));
+			matcher.appendReplacement(out, Matcher.quoteReplacement(value != null ? value.get() : matcher.group()));
+		}
+		matcher.appendTail(out);
+		return out.toString();
+	}
+
+	record Step(String name, String method, String path, String body, int weight) {
+	}
+}
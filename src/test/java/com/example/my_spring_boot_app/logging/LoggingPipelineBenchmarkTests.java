@@ -0,0 +1,147 @@
+package com.example.my_spring_boot_app.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.service.StudentImportService;
+
+/**
+ * Request latency with the old logging setup (SQL echoed to stdout by show-sql, DEBUG everywhere, Spring
+ * Boot's synchronous file appender) against the new one (async JSON appenders, sampled DEBUG, slow-query
+ * log instead of the SQL echo). Both write real files in a temp directory, and stdout goes to a file too,
+ * the way it would under a process manager. Entity caches are off so every request reaches the database.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=LoggingPipelineBenchmarkTests}.
+ */
+@Tag("benchmark")
+class LoggingPipelineBenchmarkTests {
+
+	private static final int CLIENTS = Integer.getInteger("bench.clients", 16);
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("bench.seconds", 15));
+	private static final int STUDENTS = 1000;
+
+	@TempDir
+	Path logs;
+
+	@Test
+	void asyncPipelineCutsRequestLatency() throws Exception {
+		Result legacy = run("legacy", "--logging.config=classpath:logging/logback-legacy.xml",
+				"--logging.pattern.file=%d{yyyy-MM-dd HH:mm:ss} %-5level %-30.30logger{0} - %msg%n",
+				"--spring.jpa.show-sql=true", "--request-logging.debug-sample-rate=1");
+		Result pipeline = run("pipeline");
+
+		System.out.printf("%d clients, GET /api/students/{id} and /api/students?after=&limit=20%n", CLIENTS);
+		System.out.println("legacy:   " + legacy);
+		System.out.println("pipeline: " + pipeline);
+		assertThat(legacy.errors()).isZero();
+		assertThat(pipeline.errors()).isZero();
+	}
+
+	private Result run(String name, String... extraArgs) throws Exception {
+		Path dir = Files.createDirectories(logs.resolve(name));
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.profiles.active=logbench",
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:logbench-" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+				"--spring.jpa.hibernate.ddl-auto=create-drop",
+				"--entity-cache.enabled=false",
+				"--logging.file.name=" + dir.resolve("app.log"),
+				"--request-logging.slow-log-file=" + dir.resolve("slow.log"),
+				// Measure the data path only, without a login in front of it
+				"--jwt.enabled=false"));
+		args.addAll(List.of(extraArgs));
+
+		PrintStream stdout = System.out;
+		try (PrintStream redirected = new PrintStream(new FileOutputStream(dir.resolve("stdout.log").toFile()), true, StandardCharsets.UTF_8);
+				ConfigurableApplicationContext app = new SpringApplicationBuilder(MySpringBootAppApplication.class).run(args.toArray(String[]::new))) {
+			app.getBean(StudentImportService.class).importNdjson(new ByteArrayInputStream(IntStream.range(0, STUDENTS)
+					.mapToObj(i -> "{\"name\":\"Student " + i + "\",\"course\":\"Logging\"}")
+					.collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8)));
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			System.setOut(redirected);
+			try {
+				drive(port, WARMUP);
+				return drive(port, MEASURE);
+			} finally {
+				System.setOut(stdout);
+			}
+		}
+	}
+
+	private Result drive(int port, Duration duration) throws Exception {
+		Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(30), 3);
+		AtomicInteger errors = new AtomicInteger();
+		long deadline = System.nanoTime() + duration.toNanos();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < CLIENTS; i++) {
+				workers.add(clients.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						// Ids start at 1 in a fresh database
+						int id = 1 + ThreadLocalRandom.current().nextInt(STUDENTS);
+						String path = ThreadLocalRandom.current().nextBoolean()
+								? "/api/students/" + id
+								: "/api/students?after=" + id + "&limit=20";
+						long start = System.nanoTime();
+						HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).build(),
+								HttpResponse.BodyHandlers.discarding());
+						latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+						if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		return new Result(latency.getTotalCount() / (double) duration.toSeconds(),
+				latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0, errors.get());
+	}
+
+	record Result(double requestsPerSecond, double p50Millis, double p99Millis, int errors) {
+
+		@Override
+		public String toString() {
+			return String.format("%,.0f req/s, p50 %.2fms, p99 %.2fms, %d errors",
+					requestsPerSecond, p50Millis, p99Millis, errors);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.example.my_spring_boot_app.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.my_spring_boot_app.config.RequestLoggingProperties;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class RequestLoggingFilterTests {
+
+	private final RequestLoggingProperties properties = new RequestLoggingProperties();
+	private final Map<String, String> seenByHandler = new HashMap<>();
+
+	@Test
+	void incomingRequestIdIsKeptInTheMdcAndEchoed() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/1");
+		request.addHeader("X-Request-Id", "abc-123");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		run(request, response);
+
+		assertThat(seenByHandler).containsEntry(RequestLoggingFilter.REQUEST_ID_KEY, "abc-123");
+		assertThat(response.getHeader("X-Request-Id")).isEqualTo("abc-123");
+		assertThat(MDC.get(RequestLoggingFilter.REQUEST_ID_KEY)).isNull();
+		assertThat(MDC.get(RequestLoggingFilter.SAMPLED_KEY)).isNull();
+	}
+
+	@Test
+	void unsafeRequestIdIsReplaced() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+		request.addHeader("X-Request-Id", "forged\nline");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		run(request, response);
+
+		assertThat(response.getHeader("X-Request-Id")).isNotEqualTo("forged\nline").hasSize(36);
+		assertThat(seenByHandler.get(RequestLoggingFilter.REQUEST_ID_KEY)).isEqualTo(response.getHeader("X-Request-Id"));
+	}
+
+	@Test
+	void debugOutputIsSampledUnlessTheCallerAsksForIt() throws Exception {
+		properties.setDebugSampleRate(0);
+
+		run(new MockHttpServletRequest("GET", "/api/books"), new MockHttpServletResponse());
+		assertThat(seenByHandler).containsEntry(RequestLoggingFilter.SAMPLED_KEY, "false");
+
+		MockHttpServletRequest forced = new MockHttpServletRequest("GET", "/api/books");
+		forced.addHeader("X-Debug-Log", "true");
+		run(forced, new MockHttpServletResponse());
+		assertThat(seenByHandler).containsEntry(RequestLoggingFilter.SAMPLED_KEY, "true");
+	}
+
+	@Test
+	void asyncDispatchLogsUnderTheSameIdAndSamplingDecision() throws Exception {
+		properties.setDebugSampleRate(1.0);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reactive/students");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		run(request, response, req -> req.startAsync());
+		String requestId = response.getHeader("X-Request-Id");
+
+		// A fresh decision would come out the other way now
+		properties.setDebugSampleRate(0);
+		seenByHandler.clear();
+		request.setDispatcherType(DispatcherType.ASYNC);
+		run(request, response, req -> { });
+
+		assertThat(seenByHandler)
+				.containsEntry(RequestLoggingFilter.REQUEST_ID_KEY, requestId)
+				.containsEntry(RequestLoggingFilter.SAMPLED_KEY, "true");
+		assertThat(MDC.get(RequestLoggingFilter.REQUEST_ID_KEY)).isNull();
+	}
+
+	private void run(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+		run(request, response, req -> { });
+	}
+
+	private void run(MockHttpServletRequest request, MockHttpServletResponse response, Consumer<HttpServletRequest> then) throws Exception {
+		HttpServlet handler = new HttpServlet() {
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse resp) {
+				seenByHandler.putAll(MDC.getCopyOfContextMap());
+				then.accept(req);
+			}
+		};
+		new RequestLoggingFilter(properties).doFilter(request, response, new MockFilterChain(handler));
+	}
+}
@@ -0,0 +1,172 @@
+package com.example.my_spring_boot_app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.config.JwtProperties;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.service.StudentService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * What authentication costs per request, in microseconds.
+ * <ul>
+ * <li>In isolation: a cached token, a token verified every time (HS256 and RS256), and the BCrypt check the
+ * old HTTP Basic setup paid on every request.</li>
+ * <li>End to end: request-thread CPU per GET /api/students/{id} with the JWT filter chain on and off.</li>
+ * </ul>
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=JwtAuthBenchmarkTests}.
+ */
+@Tag("benchmark")
+class JwtAuthBenchmarkTests {
+
+	private static final int CALLS = Integer.getInteger("bench.calls", 200_000);
+	private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+	private static final int CLIENTS = 4;
+
+	@Test
+	void authenticationCostPerCall() throws Exception {
+		JwtProperties cached = properties(Duration.ofMinutes(10));
+		JwtProperties uncached = properties(Duration.ZERO);
+		String hs256 = TestTokens.token(TestTokens.KEY_ID, TestTokens.SECRET, "alice", Duration.ofHours(1));
+
+		KeyPair rsa = KeyPairGenerator.getInstance("RSA").genKeyPair();
+		String pem = "-----BEGIN PUBLIC KEY-----\n" + Base64.getMimeEncoder().encodeToString(rsa.getPublic().getEncoded())
+				+ "\n-----END PUBLIC KEY-----";
+		JwtProperties rsaUncached = properties(Duration.ZERO);
+		rsaUncached.setKeys(Map.of("rsa", pem));
+		String rs256 = Jwts.builder().setHeaderParam("kid", "rsa").setSubject("alice")
+				.setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+				.signWith(rsa.getPrivate(), SignatureAlgorithm.RS256).compact();
+
+		JwtAuthenticator hit = new JwtAuthenticator(cached, new JwtKeyRing(cached));
+		JwtAuthenticator hsMiss = new JwtAuthenticator(uncached, new JwtKeyRing(uncached));
+		JwtAuthenticator rsMiss = new JwtAuthenticator(rsaUncached, new JwtKeyRing(rsaUncached));
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+		String hash = bcrypt.encode("password");
+
+		System.out.printf("cached token          %8.2f us/call%n", measure(CALLS, () -> hit.authenticate(hs256)));
+		System.out.printf("HS256, verified       %8.2f us/call%n", measure(CALLS / 10, () -> hsMiss.authenticate(hs256)));
+		System.out.printf("RS256, verified       %8.2f us/call%n", measure(CALLS / 100, () -> rsMiss.authenticate(rs256)));
+		System.out.printf("BCrypt (HTTP Basic)   %8.2f us/call%n", measure(20, () -> bcrypt.matches("password", hash)));
+	}
+
+	@Test
+	void authenticationCostPerRequest() throws Exception {
+		double without = requestCpu(false);
+		double with = requestCpu(true);
+		System.out.printf("%d clients, %d x GET /api/students/{id}%n", CLIENTS, REQUESTS);
+		System.out.printf("no security           %8.1f us request-thread CPU/req%n", without);
+		System.out.printf("JWT filter chain      %8.1f us request-thread CPU/req (%+.1f us)%n", with, with - without);
+	}
+
+	private static double measure(int calls, Supplier<?> call) {
+		for (int i = 0; i < Math.max(calls / 4, 5); i++) {
+			call.get();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < calls; i++) {
+			assertThat(call.get()).isNotNull();
+		}
+		return (System.nanoTime() - start) / 1000.0 / calls;
+	}
+
+	private static double requestCpu(boolean jwt) throws Exception {
+		List<String> args = new ArrayList<>(List.of("--spring.profiles.active=loadtest", "--jwt.enabled=" + jwt));
+		if (jwt) {
+			args.add("--jwt.keys." + TestTokens.KEY_ID + "=" + TestTokens.SECRET);
+			// Only the data-source exclusions; the security auto-configuration stays in
+			args.add("--spring.autoconfigure.exclude="
+					+ "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration");
+		}
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(MySpringBootAppApplication.class)
+				.run(args.toArray(String[]::new))) {
+			Student student = new Student();
+			student.setName("Bench");
+			student.setCourse("Security");
+			long id = app.getBean(StudentService.class).createStudent(student).id();
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/students/" + id))
+					.header("Authorization", TestTokens.bearer("bench"))
+					.build();
+			drive(request, REQUESTS / 4);
+			long cpuBefore = requestThreadCpu();
+			drive(request, REQUESTS);
+			return (requestThreadCpu() - cpuBefore) / 1000.0 / REQUESTS;
+		}
+	}
+
+	private static void drive(HttpRequest request, int requests) throws Exception {
+		AtomicInteger remaining = new AtomicInteger(requests);
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < CLIENTS; i++) {
+				workers.add(clients.submit(() -> {
+					while (remaining.getAndDecrement() > 0) {
+						HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+						assertThat(response.statusCode()).isEqualTo(200);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+	}
+
+	// CPU time of Tomcat's request threads ("http-nio-<port>-exec-<n>"), in nanoseconds
+	private static long requestThreadCpu() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long total = 0;
+		for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+			if (info != null && info.getThreadName().contains("-exec-")) {
+				total += Math.max(0, threads.getThreadCpuTime(info.getThreadId()));
+			}
+		}
+		return total;
+	}
+
+	private static JwtProperties properties(Duration cacheTtl) {
+		JwtProperties properties = new JwtProperties();
+		properties.setKeys(Map.of(TestTokens.KEY_ID, TestTokens.SECRET));
+		properties.setCacheTtl(cacheTtl);
+		return properties;
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.my_spring_boot_app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.example.my_spring_boot_app.config.JwtProperties;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtAuthenticatorTests {
+
+	private static final String OTHER_SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void aVerifiedTokenIsServedFromTheCacheAfterwards() {
+		JwtAuthenticator authenticator = new JwtAuthenticator(properties(), new JwtKeyRing(properties()));
+		String token = TestTokens.token(TestTokens.KEY_ID, TestTokens.SECRET, "alice", Duration.ofMinutes(5));
+
+		Authentication first = authenticator.authenticate(token);
+
+		assertThat(first.getName()).isEqualTo("alice");
+		assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+				.containsExactly("SCOPE_students:read", "SCOPE_students:write");
+		assertThat(authenticator.authenticate(token)).isSameAs(first);
+		assertThat(authenticator.getCachedTokens()).isEqualTo(1);
+	}
+
+	@Test
+	void badTokensAreRefusedAndNotCached() {
+		JwtAuthenticator authenticator = new JwtAuthenticator(properties(), new JwtKeyRing(properties()));
+
+		assertThatThrownBy(() -> authenticator.authenticate(TestTokens.token(TestTokens.KEY_ID, OTHER_SECRET, "mallory", Duration.ofMinutes(5))))
+				.isInstanceOf(SignatureException.class);
+		assertThatThrownBy(() -> authenticator.authenticate(TestTokens.token(TestTokens.KEY_ID, TestTokens.SECRET, "late", Duration.ofMinutes(-5))))
+				.isInstanceOf(ExpiredJwtException.class);
+		assertThatThrownBy(() -> authenticator.authenticate(TestTokens.token("unknown", TestTokens.SECRET, "who", Duration.ofMinutes(5))))
+				.isInstanceOf(JwtException.class);
+		assertThat(authenticator.getCachedTokens()).isZero();
+	}
+
+	@Test
+	void keysRotateFromTheKeyFileWithoutARestart() throws Exception {
+		Path keyFile = dir.resolve("jwt-keys.properties");
+		Files.writeString(keyFile, "old=" + TestTokens.SECRET + "\n");
+		JwtProperties properties = new JwtProperties();
+		properties.setKeyFile(keyFile);
+		properties.setKeyRefresh(Duration.ofMillis(50));
+		try (JwtKeyRing keyRing = new JwtKeyRing(properties)) {
+			JwtAuthenticator authenticator = new JwtAuthenticator(properties, keyRing);
+			String oldToken = TestTokens.token("old", TestTokens.SECRET, "alice", Duration.ofMinutes(5));
+			authenticator.authenticate(oldToken);
+
+			Files.writeString(keyFile, "new=" + OTHER_SECRET + "\n");
+			// Don't depend on the file system's timestamp resolution
+			Files.setLastModifiedTime(keyFile, FileTime.from(Instant.now().plusSeconds(10)));
+			long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (!keyRing.getKeyIds().contains("new") && System.nanoTime() < deadline) {
+				Thread.sleep(20);
+			}
+
+			assertThat(keyRing.getKeyIds()).containsExactly("new");
+			assertThat(authenticator.authenticate(TestTokens.token("new", OTHER_SECRET, "bob", Duration.ofMinutes(5))).getName())
+					.isEqualTo("bob");
+			// Cached or not, a token from the retired key is no longer accepted
+			assertThatThrownBy(() -> authenticator.authenticate(oldToken)).isInstanceOf(JwtException.class);
+		}
+	}
+
+	private static JwtProperties properties() {
+		JwtProperties properties = new JwtProperties();
+		properties.setKeys(Map.of(TestTokens.KEY_ID, TestTokens.SECRET));
+		return properties;
+	}
+}
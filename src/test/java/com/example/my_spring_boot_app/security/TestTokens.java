@@ -0,0 +1,35 @@
+package com.example.my_spring_boot_app.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Signs tokens the test profile accepts: same secret as jwt.keys.test in application-test.properties
+public final class TestTokens {
+
+	public static final String KEY_ID = "test";
+	public static final String SECRET = "0On1UjYm/U0eDVpXbPre+/pFG7QVGRC7cC6QBcpAgiY=";
+
+	private TestTokens() {
+	}
+
+	public static String bearer(String subject) {
+		return "Bearer " + token(KEY_ID, SECRET, subject, Duration.ofMinutes(5));
+	}
+
+	public static String token(String keyId, String secret, String subject, Duration validFor) {
+		Instant now = Instant.now();
+		return Jwts.builder()
+				.setHeaderParam("kid", keyId)
+				.setSubject(subject)
+				.claim("scope", "students:read students:write")
+				.setIssuedAt(Date.from(now))
+				.setExpiration(Date.from(now.plus(validFor)))
+				.signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret)))
+				.compact();
+	}
+}
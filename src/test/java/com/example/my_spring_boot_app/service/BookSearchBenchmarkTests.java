@@ -0,0 +1,96 @@
+package com.example.my_spring_boot_app.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.my_spring_boot_app.dto.BookDto;
+
+/**
+ * Search latency over a generated catalog of {@link #BOOKS} books: prefix, substring and misspelt
+ * queries against the index directly (no HTTP, no database).
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=BookSearchBenchmarkTests}.
+ */
+@Tag("benchmark")
+class BookSearchBenchmarkTests {
+
+	private static final int BOOKS = Integer.getInteger("bench.books", 1_000_000);
+	private static final int QUERIES = 5_000;
+
+	// Zipf-ish vocabulary: a few very common words, a long tail of rare ones
+	private static final List<String> COMMON = List.of("the", "of", "and", "a", "in", "to", "my", "on", "for", "with");
+
+	@Test
+	void searchLatencyAtScale() {
+		Random random = new Random(42);
+		String[] vocabulary = new String[20_000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			vocabulary[i] = word(random, 4 + random.nextInt(6));
+		}
+		String[] surnames = new String[5_000];
+		for (int i = 0; i < surnames.length; i++) {
+			surnames[i] = word(random, 5 + random.nextInt(5));
+		}
+
+		BookSearchIndex index = new BookSearchIndex(0.4);
+		long start = System.nanoTime();
+		for (long id = 1; id <= BOOKS; id++) {
+			StringBuilder title = new StringBuilder();
+			int words = 2 + random.nextInt(5);
+			for (int w = 0; w < words; w++) {
+				title.append(w > 0 ? " " : "").append(random.nextInt(3) == 0
+						? COMMON.get(random.nextInt(COMMON.size()))
+						: vocabulary[(int) Math.min(vocabulary.length - 1, Math.abs(random.nextGaussian()) * vocabulary.length / 3)]);
+			}
+			String author = Character.toUpperCase((char) ('a' + random.nextInt(26))) + ". " + surnames[random.nextInt(surnames.length)];
+			index.put(new BookDto(id, title.toString(), author, 0L));
+		}
+		System.out.printf("Indexed %,d books in %,d ms (heap used %,d MB)%n", BOOKS, (System.nanoTime() - start) / 1_000_000,
+				(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20);
+
+		run("prefix   ", index, random, word -> word.substring(0, Math.max(3, word.length() - 2)), vocabulary);
+		run("substring", index, random, word -> word.substring(1), vocabulary);
+		run("typo     ", index, random, word -> swapMiddle(word), vocabulary);
+		run("two words", index, random, word -> word + " " + vocabulary[random.nextInt(vocabulary.length)].substring(0, 3), vocabulary);
+		run("author   ", index, random, word -> swapMiddle(word), surnames);
+	}
+
+	private static void run(String label, BookSearchIndex index, Random random, Function<String, String> query, String[] words) {
+		for (int i = 0; i < 500; i++) {
+			index.search(query.apply(words[random.nextInt(words.length)]), 20);
+		}
+		long[] latencies = new long[QUERIES];
+		long results = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			String q = query.apply(words[random.nextInt(words.length)]);
+			long t = System.nanoTime();
+			results += index.search(q, 20).size();
+			latencies[i] = System.nanoTime() - t;
+		}
+		Arrays.sort(latencies);
+		System.out.printf("%s p50 %.3fms  p99 %.3fms  max %.3fms  (%.1f hits/query)%n", label,
+				latencies[QUERIES / 2] / 1e6, latencies[(int) (QUERIES * 0.99)] / 1e6, latencies[QUERIES - 1] / 1e6,
+				results / (double) QUERIES);
+	}
+
+	private static String word(Random random, int length) {
+		StringBuilder word = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(26)));
+		}
+		return word.toString();
+	}
+
+	private static String swapMiddle(String word) {
+		char[] chars = word.toCharArray();
+		int i = chars.length / 2;
+		char c = chars[i];
+		chars[i] = chars[i - 1];
+		chars[i - 1] = c;
+		return new String(chars);
+	}
+}
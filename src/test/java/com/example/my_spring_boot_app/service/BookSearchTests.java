@@ -0,0 +1,76 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.my_spring_boot_app.dto.BookDto;
+import com.example.my_spring_boot_app.dto.BookSearchHit;
+import com.example.my_spring_boot_app.model.Book;
+
+@SpringBootTest
+class BookSearchTests {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookSearchService bookSearchService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private BookDto stone;
+
+	@BeforeEach
+	void saveBooks() {
+		stone = bookService.saveBook(book("Harry Potter and the Philosopher's Stone", "J. K. Rowling"));
+		bookService.saveBook(book("The Hobbit", "J. R. R. Tolkien"));
+		bookService.saveBook(book("Harriet the Spy", "Louise Fitzhugh"));
+		bookService.saveBook(book("Where the Wild Things Are", "Maurice Sendak"));
+	}
+
+	@Test
+	void prefixSubstringAndTypoMatches() {
+		assertThat(bookSearchService.search("harry pot", 5)).first()
+				.extracting(BookSearchHit::getTitle).isEqualTo("Harry Potter and the Philosopher's Stone");
+		assertThat(bookSearchService.search("hobb", 5)).extracting(BookSearchHit::getTitle).contains("The Hobbit");
+		// Substring in the middle of a word
+		assertThat(bookSearchService.search("otter", 5)).extracting(BookSearchHit::getTitle)
+				.contains("Harry Potter and the Philosopher's Stone");
+		// Transposed letters, in the author
+		assertThat(bookSearchService.search("tolkein", 5)).extracting(BookSearchHit::getAuthor).contains("J. R. R. Tolkien");
+		assertThat(bookSearchService.search("zzzz", 5)).isEmpty();
+	}
+
+	@Test
+	void closerMatchesRankFirst() {
+		// "harri" is a prefix of Harriet's title, and only a near miss for "Harry"
+		assertThat(bookSearchService.search("harri", 5)).first()
+				.extracting(BookSearchHit::getTitle).isEqualTo("Harriet the Spy");
+	}
+
+	@Test
+	void savesAreSearchableOnlyOnceCommitted() {
+		Book renamed = book("Harry Potter and the Sorcerer's Stone", "J. K. Rowling");
+		renamed.setId(stone.id());
+		transactionTemplate.executeWithoutResult(status -> {
+			bookService.saveBook(renamed);
+			assertThat(bookSearchService.search("sorcerer", 5)).isEmpty();
+		});
+
+		assertThat(bookSearchService.search("sorcerer", 5)).extracting(BookSearchHit::getId).containsExactly(stone.id());
+		assertThat(bookSearchService.search("philosopher", 5)).extracting(BookSearchHit::getId).doesNotContain(stone.id());
+	}
+
+	private static Book book(String title, String author) {
+		Book book = new Book();
+		book.setTitle(title);
+		book.setAuthor(author);
+		return book;
+	}
+}
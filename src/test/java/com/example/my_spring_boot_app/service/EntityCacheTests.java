@@ -0,0 +1,124 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.my_spring_boot_app.config.CacheConfig;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+
+@SpringBootTest
+class EntityCacheTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void clearStudents() {
+		studentRepository.deleteAllInBatch();
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	@Test
+	void repeatedLookupsAreServedFromTheCache() {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+		long hitsBefore = stats(CacheConfig.STUDENTS).stats().hitCount();
+
+		// Gone from the table but not from the cache: proves the second read never reached the database
+		studentRepository.deleteAllInBatch();
+
+		assertThat(studentService.getStudentById(saved.id()).name()).isEqualTo("Asha");
+		assertThat(stats(CacheConfig.STUDENTS).stats().hitCount()).isEqualTo(hitsBefore + 1);
+	}
+
+	@Test
+	void readsAfterWritesSeeTheWrite() {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+		assertThat(studentService.getAllStudents()).extracting(StudentDto::name).containsExactly("Asha");
+		assertThat(studentService.getStudentsAfter(null, 10)).hasSize(1);
+
+		studentService.updateStudent(saved.id(), student("Asha K"));
+		assertThat(studentService.getStudentById(saved.id()).name()).isEqualTo("Asha K");
+		assertThat(studentService.getAllStudents()).extracting(StudentDto::name).containsExactly("Asha K");
+
+		StudentDto second = studentService.createStudent(student("Ravi"));
+		assertThat(studentService.getStudentsAfter(null, 10)).extracting(StudentDto::name).containsExactly("Asha K", "Ravi");
+
+		studentService.deleteStudent(second.id(), null);
+		assertThat(studentService.getStudentById(second.id())).isNull();
+		assertThat(studentService.getAllStudents()).extracting(StudentDto::name).containsExactly("Asha K");
+	}
+
+	@Test
+	void rolledBackWritesNeverReachTheCache() {
+		StudentDto saved = studentService.createStudent(student("Asha"));
+		studentService.getStudentById(saved.id());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			studentService.updateStudent(saved.id(), student("Never committed"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(studentService.getStudentById(saved.id()).name()).isEqualTo("Asha");
+		assertThat(studentRepository.findById(saved.id())).get().extracting(Student::getName).isEqualTo("Asha");
+	}
+
+	@Test
+	void concurrentReadersNeverResurrectAnOverwrittenValue() throws Exception {
+		StudentDto saved = studentService.createStudent(student("v0"));
+		AtomicBoolean running = new AtomicBoolean(true);
+		try (ExecutorService readers = Executors.newFixedThreadPool(4)) {
+			Future<?>[] loops = new Future<?>[4];
+			for (int r = 0; r < loops.length; r++) {
+				loops[r] = readers.submit(() -> {
+					while (running.get()) {
+						// Keep the entry churning so reloads race with the writes below
+						cacheManager.getCache(CacheConfig.STUDENTS).evict(saved.id());
+						studentService.getStudentById(saved.id());
+					}
+				});
+			}
+			for (int i = 1; i <= 200; i++) {
+				studentService.updateStudent(saved.id(), student("v" + i));
+				assertThat(studentService.getStudentById(saved.id()).name()).isEqualTo("v" + i);
+			}
+			running.set(false);
+			for (Future<?> loop : loops) {
+				loop.get();
+			}
+		}
+	}
+
+	private Cache<?, ?> stats(String name) {
+		return (Cache<?, ?>) cacheManager.getCache(name).getNativeCache();
+	}
+
+	private static Student student(String name) {
+		Student student = new Student();
+		student.setName(name);
+		student.setCourse("Maths");
+		return student;
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.config.WriteBehindProperties;
+
+class GroupCommitBufferTests {
+
+	private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+	@Test
+	void fullBatchesGoOutTogetherAndTheRestAfterMaxDelay() throws Exception {
+		try (GroupCommitBuffer<Integer, Integer> buffer = new GroupCommitBuffer<>("rows", properties(50, Duration.ofMillis(200), 1000), this::record)) {
+			List<CompletableFuture<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < 120; i++) {
+				futures.add(buffer.submit(i));
+			}
+
+			for (int i = 0; i < 120; i++) {
+				assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i * 10);
+			}
+		}
+		assertThat(batches).extracting(List::size).containsExactly(50, 50, 20);
+	}
+
+	@Test
+	void fullBufferTurnsCreatesAway() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try (GroupCommitBuffer<Integer, Integer> buffer = new GroupCommitBuffer<>("rows", properties(1, Duration.ZERO, 2), rows -> {
+			await(release);
+			return record(rows);
+		})) {
+			CompletableFuture<Integer> first = buffer.submit(1);
+			CompletableFuture<Integer> second = buffer.submit(2);
+
+			assertThatThrownBy(() -> buffer.submit(3))
+					.isInstanceOfSatisfying(ResponseStatusException.class,
+							e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+			release.countDown();
+			assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(10);
+			assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(20);
+			// Room again once the rows are written
+			assertThat(buffer.submit(4).get(5, TimeUnit.SECONDS)).isEqualTo(40);
+		}
+	}
+
+	@Test
+	void anErrorFailsItsBatchAndTheWriterKeepsGoing() throws Exception {
+		try (GroupCommitBuffer<Integer, Integer> buffer = new GroupCommitBuffer<>("rows", properties(1, Duration.ZERO, 10), rows -> {
+			if (rows.contains(1)) {
+				throw new StackOverflowError();
+			}
+			return record(rows);
+		})) {
+			assertThatThrownBy(() -> buffer.submit(1).get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(StackOverflowError.class);
+
+			assertThat(buffer.submit(2).get(5, TimeUnit.SECONDS)).isEqualTo(20);
+		}
+	}
+
+	@Test
+	void closeWritesWhatIsStillQueued() throws Exception {
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		GroupCommitBuffer<Integer, Integer> buffer = new GroupCommitBuffer<>("rows", properties(50, Duration.ofHours(1), 1000), this::record);
+		for (int i = 0; i < 5; i++) {
+			futures.add(buffer.submit(i));
+		}
+
+		buffer.close();
+
+		assertThat(futures).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+		assertThatThrownBy(() -> buffer.submit(6))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+	}
+
+	private List<Integer> record(List<Integer> rows) {
+		batches.add(rows);
+		return rows.stream().map(row -> row * 10).toList();
+	}
+
+	private static WriteBehindProperties properties(int batchSize, Duration maxDelay, int capacity) {
+		WriteBehindProperties properties = new WriteBehindProperties();
+		properties.setBatchSize(batchSize);
+		properties.setMaxDelay(maxDelay);
+		properties.setCapacity(capacity);
+		return properties;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.my_spring_boot_app.config.HttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpClientSessionManagerTests {
+
+	private static final int LARGE_BODY = 4 * 1024 * 1024;
+
+	private HttpServer server;
+	private HttpClientSessionManager manager;
+	private String baseUrl;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 100);
+		// /login?user=x sets a cookie, /whoami echoes it back
+		server.createContext("/login", exchange -> {
+			String user = exchange.getRequestURI().getQuery().substring("user=".length());
+			exchange.getResponseHeaders().add("Set-Cookie", "user=" + user + "; Path=/");
+			respond(exchange, 200, "ok");
+		});
+		server.createContext("/whoami", exchange -> {
+			String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+			respond(exchange, 200, cookie == null ? "anonymous" : cookie);
+		});
+		server.createContext("/large", exchange -> {
+			exchange.sendResponseHeaders(200, LARGE_BODY);
+			try (OutputStream body = exchange.getResponseBody()) {
+				byte[] chunk = new byte[64 * 1024];
+				for (int written = 0; written < LARGE_BODY; written += chunk.length) {
+					body.write(chunk);
+				}
+			}
+		});
+		server.createContext("/broken", exchange -> respond(exchange, 500, "nope"));
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+		HttpClientProperties properties = new HttpClientProperties();
+		properties.setMaxPerRoute(10);
+		manager = new HttpClientSessionManager(properties);
+		manager.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		manager.stop();
+		server.stop(0);
+	}
+
+	@Test
+	void sessionsKeepTheirOwnCookies() throws Exception {
+		HttpClientSessionManager.Session alice = manager.openSession();
+		HttpClientSessionManager.Session bob = manager.openSession();
+
+		alice.get(baseUrl + "/login?user=alice");
+		bob.getAsync(baseUrl + "/login?user=bob").get();
+
+		// Many concurrent requests per session, each must only ever see its own cookie
+		List<CompletableFuture<Boolean>> checks = IntStream.range(0, 200)
+				.mapToObj(i -> i % 2 == 0
+						? alice.getAsync(baseUrl + "/whoami").thenApply("user=alice"::equals)
+						: bob.getAsync(baseUrl + "/whoami").thenApply("user=bob"::equals))
+				.toList();
+		assertThat(checks).allSatisfy(check -> assertThat(check.get()).isTrue());
+		assertThat(manager.get(baseUrl + "/whoami")).isEqualTo("anonymous");
+	}
+
+	@Test
+	void largeBodiesAreConsumedAsTheyArrive() throws Exception {
+		HttpClientSessionManager.Session session = manager.openSession();
+
+		long streamed = session.get(baseUrl + "/large", (body, type) -> {
+			byte[] buffer = new byte[8192];
+			long total = 0;
+			for (int n; (n = body.read(buffer)) != -1; ) {
+				total += n;
+			}
+			return total;
+		});
+		AtomicLong chunks = new AtomicLong();
+		long streamedAsync = session.streamAsync(baseUrl + "/large", chunk -> chunks.incrementAndGet()).get();
+
+		assertThat(streamed).isEqualTo(LARGE_BODY);
+		assertThat(streamedAsync).isEqualTo(LARGE_BODY);
+		assertThat(chunks.get()).isGreaterThan(1);
+	}
+
+	@Test
+	void errorStatusesFailTheCallAndConnectionsGoBackToThePool() throws InterruptedException {
+		HttpClientSessionManager.Session session = manager.openSession();
+
+		assertThatThrownBy(() -> session.get(baseUrl + "/broken")).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> session.getAsync(baseUrl + "/broken").get())
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class);
+
+		assertThat(manager.getPoolStats().get("classic")).containsEntry("leased", 0).containsEntry("pending", 0);
+		// The async client hands its connection back just after completing the future
+		for (int i = 0; i < 100 && manager.getPoolStats().get("async").get("leased") > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(manager.getPoolStats().get("async")).containsEntry("leased", 0);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
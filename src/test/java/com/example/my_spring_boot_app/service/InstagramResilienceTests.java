@@ -0,0 +1,122 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.my_spring_boot_app.config.InstagramProperties;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+import com.example.my_spring_boot_app.resilience.CircuitBreaker;
+import com.example.my_spring_boot_app.resilience.UpstreamUnavailableException;
+import com.example.my_spring_boot_app.support.InstagramStubServer;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InstagramResilienceTests {
+
+	private final InstagramStubServer stub = new InstagramStubServer();
+	private InstagramService instagramService;
+
+	@AfterEach
+	void tearDown() {
+		instagramService.close();
+		stub.close();
+	}
+
+	@Test
+	void slowUpstreamTimesOutAndThenFailsFastOnceTheBreakerOpens() {
+		stub.latency(Duration.ofMillis(500));
+		instagramService = service(properties -> {
+			properties.getResilience().setCallTimeout(Duration.ofMillis(100));
+			properties.getResilience().setMaxRetries(0);
+			properties.getResilience().getCircuitBreaker().setWindowSize(10);
+			properties.getResilience().getCircuitBreaker().setMinimumCalls(5);
+		});
+
+		for (int i = 0; i < 5; i++) {
+			long start = System.nanoTime();
+			assertThatThrownBy(() -> instagramService.getProfileByUsername("slow").block())
+					.satisfies(e -> assertThat(Exceptions.unwrap(e)).isInstanceOf(TimeoutException.class));
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(400));
+		}
+		assertThat(instagramService.getUpstreamStats()).containsEntry("circuitBreaker", CircuitBreaker.State.OPEN);
+
+		for (int i = 0; i < 20; i++) {
+			assertThatThrownBy(() -> instagramService.getProfileByUsername("slow").block())
+					.isInstanceOf(UpstreamUnavailableException.class);
+		}
+		assertThat(stub.requestCount()).isEqualTo(5);
+	}
+
+	@Test
+	void transientFailuresAreRetriedWithBackoff() {
+		stub.errorRate(0.3, 503);
+		instagramService = service(properties -> {
+			properties.getResilience().setMaxRetries(3);
+			properties.getResilience().setRetryBackoff(Duration.ofMillis(5));
+			properties.getResilience().setRetryBudgetRatio(1);
+			properties.getResilience().setRetryBudgetMax(100);
+			properties.getResilience().getCircuitBreaker().setFailureRateThreshold(0.9);
+		});
+
+		long found = Flux.range(0, 50)
+				.concatMap(i -> instagramService.getProfileByUsername("user" + i))
+				.count()
+				.block();
+
+		assertThat(found).isGreaterThanOrEqualTo(47);
+		assertThat(stub.requestCount()).isGreaterThan(50);
+	}
+
+	@Test
+	void concurrencyAboveTheLimitIsShedInsteadOfQueued() {
+		stub.latency(Duration.ofMillis(300));
+		instagramService = service(properties -> {
+			properties.getResilience().getLimiter().setInitialLimit(5);
+			properties.getResilience().getLimiter().setMaxLimit(5);
+		});
+
+		List<Object> outcomes = Flux.range(0, 20)
+				.flatMap(i -> instagramService.getProfileByUsername("user" + i)
+						.<Object>map(profile -> profile)
+						.onErrorResume(e -> Mono.just(e)), 20)
+				.collectList()
+				.block();
+
+		assertThat(stub.requestCount()).isLessThanOrEqualTo(5);
+		assertThat(outcomes).filteredOn(InstagramProfile.class::isInstance).hasSize(stub.requestCount());
+		assertThat(outcomes).filteredOn(UpstreamUnavailableException.class::isInstance).hasSize(20 - stub.requestCount());
+	}
+
+	@Test
+	void slowResponsesShrinkTheConcurrencyLimit() {
+		stub.latency(Duration.ofMillis(100));
+		instagramService = service(properties ->
+				properties.getResilience().getLimiter().setLatencyThreshold(Duration.ofMillis(50)));
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(instagramService.getProfileByUsername("user" + i).block()).isNotNull();
+		}
+
+		assertThat((Integer) instagramService.getUpstreamStats().get("concurrencyLimit")).isLessThan(20);
+	}
+
+	private InstagramService service(Consumer<InstagramProperties> customizer) {
+		InstagramProperties properties = new InstagramProperties();
+		properties.setBaseUrl(stub.baseUrl());
+		// Every call should reach the stub
+		properties.getCache().setEnabled(false);
+		customizer.accept(properties);
+		return new InstagramService(WebClient.builder(), properties);
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.my_spring_boot_app.config.InstagramProperties;
+import com.example.my_spring_boot_app.dto.ProfileLookupResult;
+import com.example.my_spring_boot_app.dto.ProfileLookupResult.Status;
+import com.example.my_spring_boot_app.model.InstagramProfile;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InstagramServiceTests {
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private volatile HttpStatus upstreamStatus = HttpStatus.OK;
+	private String profileJson;
+	private InstagramService instagramService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		profileJson = new ClassPathResource("instagram/profile.json").getContentAsString(StandardCharsets.UTF_8);
+		// Stand-in for instagram.com: counts calls and answers after a short delay, so concurrent misses overlap
+		WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+			upstreamCalls.incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			String query = request.url().getQuery();
+			HttpStatus status = query.endsWith("=missing") ? HttpStatus.NOT_FOUND
+					: query.endsWith("=broken") ? HttpStatus.INTERNAL_SERVER_ERROR
+					: upstreamStatus;
+			ClientResponse response = status == HttpStatus.OK
+					? ClientResponse.create(HttpStatus.OK)
+							.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+							.body(profileJson)
+							.build()
+					: ClientResponse.create(status).build();
+			return Mono.delay(Duration.ofMillis(50)).doOnNext(tick -> inFlight.decrementAndGet()).thenReturn(response);
+		});
+		instagramService = new InstagramService(builder, new InstagramProperties());
+	}
+
+	@Test
+	void concurrentMissesShareOneUpstreamCall() {
+		List<InstagramProfile> profiles = Flux.range(0, 500)
+				.flatMap(i -> instagramService.getProfileByUsername("sakshi_raghu_1c_"), 500)
+				.collectList()
+				.block();
+
+		assertThat(profiles).hasSize(500)
+				.allSatisfy(profile -> assertThat(profile.getData().getUser().getFullName()).isEqualTo("Sakshi Raghuwanshi"));
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(instagramService.getCacheStats().get("profiles"))
+				.containsEntry("missCount", 1L)
+				.containsEntry("hitCount", 499L);
+	}
+
+	@Test
+	void notFoundIsCachedButServerErrorsAreNot() {
+		upstreamStatus = HttpStatus.NOT_FOUND;
+		assertThat(instagramService.getProfileByUsername("nobody").blockOptional()).isEmpty();
+		assertThat(instagramService.getProfileByUsername("NOBODY").blockOptional()).isEmpty();
+		assertThat(upstreamCalls).hasValue(1);
+
+		// 503 is retried twice before giving up, and the failure must not be cached
+		upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+		assertThat(instagramService.getRawProfileByUsername("someone").block()).isEqualTo("{}");
+		assertThat(upstreamCalls).hasValue(4);
+		upstreamStatus = HttpStatus.OK;
+		assertThat(instagramService.getRawProfileByUsername("someone").block()).isEqualTo(profileJson);
+		assertThat(upstreamCalls).hasValue(5);
+	}
+
+	@Test
+	void batchLookupBoundsConcurrencyAndReportsFailuresInline() {
+		List<String> usernames = IntStream.range(0, 40).mapToObj(i -> "user" + i).collect(Collectors.toList());
+		usernames.addAll(List.of("missing", "broken"));
+
+		List<ProfileLookupResult> results = instagramService.getProfiles(usernames, 4).collectList().block();
+
+		assertThat(results).hasSize(42);
+		assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+		assertThat(results).filteredOn(r -> r.getStatus() == Status.FOUND).hasSize(40);
+		assertThat(results).filteredOn(r -> r.getStatus() == Status.NOT_FOUND)
+				.extracting(ProfileLookupResult::getUsername).containsExactly("missing");
+		assertThat(results).filteredOn(r -> r.getStatus() == Status.ERROR)
+				.extracting(ProfileLookupResult::getError).containsExactly("Upstream returned 500 INTERNAL_SERVER_ERROR");
+	}
+}
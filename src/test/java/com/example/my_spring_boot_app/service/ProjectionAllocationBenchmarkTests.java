@@ -0,0 +1,95 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Heap allocation and CPU time of one full-list call (query + JSON serialization), loading managed
+ * entities versus selecting into {@link StudentDto} records. The service cache is bypassed.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=ProjectionAllocationBenchmarkTests}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ProjectionAllocationBenchmarkTests {
+
+	private static final int ROWS = 2_000;
+	private static final int CALLS = 300;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private StudentImportService studentImportService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void projectionsAllocateLessPerListCall() throws Exception {
+		studentRepository.deleteAllInBatch();
+		studentImportService.importNdjson(new ByteArrayInputStream(IntStream.range(0, ROWS)
+				.mapToObj(i -> "{\"name\":\"Student " + i + "\",\"email\":\"s" + i + "@example.com\",\"phone\":\"+1555" + i + "\",\"course\":\"Bench\"}")
+				.collect(Collectors.joining("\n"))
+				.getBytes(StandardCharsets.UTF_8)));
+
+		// What the list endpoint did before: entities through findAll() (a read-only repository transaction)
+		Cost entities = measure(() -> objectMapper.writeValueAsBytes(studentRepository.findAll()));
+		// Entities in a read-write transaction, as any @Transactional service method would load them: snapshots included
+		Cost entitiesReadWrite = measure(() -> transactionTemplate.execute(status -> {
+			try {
+				return objectMapper.writeValueAsBytes(studentRepository.findAll());
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}));
+		Cost projection = measure(() -> objectMapper.writeValueAsBytes(studentRepository.findAllByOrderByIdAsc(StudentDto.class)));
+
+		System.out.printf("%,d rows per call%n", ROWS);
+		System.out.println("entities (read-only tx):  " + entities);
+		System.out.println("entities (read-write tx): " + entitiesReadWrite);
+		System.out.println("DTO projection:           " + projection);
+		assertThat(projection.bytesPerCall()).isLessThan(entities.bytesPerCall());
+	}
+
+	private static Cost measure(Callable<byte[]> call) throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < CALLS; i++) {
+			call.call();
+		}
+		List<Long> before = List.of(threads.getCurrentThreadAllocatedBytes(), threads.getCurrentThreadCpuTime());
+		for (int i = 0; i < CALLS; i++) {
+			call.call();
+		}
+		return new Cost((threads.getCurrentThreadAllocatedBytes() - before.get(0)) / CALLS,
+				(threads.getCurrentThreadCpuTime() - before.get(1)) / CALLS / 1_000);
+	}
+
+	record Cost(long bytesPerCall, long cpuMicrosPerCall) {
+
+		@Override
+		public String toString() {
+			return String.format("%,d bytes/call, %,d us CPU/call", bytesPerCall, cpuMicrosPerCall);
+		}
+	}
+}
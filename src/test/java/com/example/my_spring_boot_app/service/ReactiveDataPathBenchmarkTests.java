@@ -0,0 +1,147 @@
+package com.example.my_spring_boot_app.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * JPA versus R2DBC on the same in-memory database: full-table streaming throughput, and
+ * single-row lookups at a fixed concurrency (latency percentiles and lookups/sec).
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=ReactiveDataPathBenchmarkTests}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles({"reactive", "test"})
+class ReactiveDataPathBenchmarkTests {
+
+	private static final int ROWS = Integer.getInteger("bench.rows", 50_000);
+	private static final int LOOKUPS = 20_000;
+	private static final int CONCURRENCY = 16;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private ReactiveStudentService reactiveStudentService;
+
+	@Autowired
+	private StudentImportService studentImportService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	private long[] ids;
+
+	@BeforeEach
+	void seedStudents() throws IOException {
+		studentRepository.deleteAllInBatch();
+		studentImportService.importNdjson(new ByteArrayInputStream(IntStream.range(0, ROWS)
+				.mapToObj(i -> "{\"name\":\"Student " + i + "\",\"email\":\"s" + i + "@example.com\",\"course\":\"Bench\"}")
+				.collect(Collectors.joining("\n"))
+				.getBytes(StandardCharsets.UTF_8)));
+		ids = studentRepository.findAll().stream().mapToLong(Student::getId).toArray();
+	}
+
+	@Test
+	void compareJpaAndR2dbc() throws Exception {
+		// Warm up both paths
+		for (int i = 0; i < 3; i++) {
+			streamJpa();
+			streamR2dbc();
+			lookupsJpa(2_000);
+			lookupsR2dbc(2_000);
+		}
+
+		System.out.printf("Streaming %,d rows: JPA %,.0f rows/s, R2DBC %,.0f rows/s%n",
+				ROWS, ROWS / seconds(this::streamJpa), ROWS / seconds(this::streamR2dbc));
+		System.out.println("Lookups by id, JPA:   " + lookupsJpa(LOOKUPS));
+		System.out.println("Lookups by id, R2DBC: " + lookupsR2dbc(LOOKUPS));
+	}
+
+	private void streamJpa() {
+		AtomicLong count = new AtomicLong();
+		studentService.streamAllStudents(student -> count.incrementAndGet());
+	}
+
+	private void streamR2dbc() {
+		reactiveStudentService.getAllStudents().count().block();
+	}
+
+	// JPA is blocking, so concurrency comes from a pool of threads
+	private String lookupsJpa(int lookups) throws Exception {
+		long[] latencies = new long[lookups];
+		long start = System.nanoTime();
+		try (ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY)) {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int w = 0; w < CONCURRENCY; w++) {
+				int worker = w;
+				workers.add(pool.submit(() -> {
+					for (int i = worker; i < lookups; i += CONCURRENCY) {
+						long t = System.nanoTime();
+						studentService.getStudentById(randomId());
+						latencies[i] = System.nanoTime() - t;
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		return describe(latencies, System.nanoTime() - start);
+	}
+
+	// R2DBC keeps the same number of lookups in flight without a thread per lookup
+	private String lookupsR2dbc(int lookups) {
+		long[] latencies = new long[lookups];
+		long start = System.nanoTime();
+		Flux.range(0, lookups)
+				.flatMap(i -> {
+					long t = System.nanoTime();
+					return reactiveStudentService.getStudentById(randomId())
+							.doOnSuccess(student -> latencies[i] = System.nanoTime() - t);
+				}, CONCURRENCY)
+				.blockLast();
+		return describe(latencies, System.nanoTime() - start);
+	}
+
+	private long randomId() {
+		return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+	}
+
+	private static String describe(long[] latencies, long elapsedNanos) {
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		return String.format("%,.0f lookups/s, p50 %.3fms, p99 %.3fms",
+				latencies.length / (elapsedNanos / 1e9),
+				sorted[sorted.length / 2] / 1e6,
+				sorted[(int) (sorted.length * 0.99)] / 1e6);
+	}
+
+	private static double seconds(Runnable action) {
+		long start = System.nanoTime();
+		action.run();
+		return (System.nanoTime() - start) / 1e9;
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.model.Book;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+// "test" comes last so its in-memory R2DBC URL wins over the one in application-reactive.properties
+@SpringBootTest
+@ActiveProfiles({"reactive", "test"})
+class ReactiveStudentServiceTests {
+
+	@Autowired
+	private ReactiveStudentService reactiveStudentService;
+
+	@Autowired
+	private ReactiveBookService reactiveBookService;
+
+	@Autowired
+	private StudentImportService studentImportService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@BeforeEach
+	void seedStudents() throws IOException {
+		studentRepository.deleteAllInBatch();
+		studentImportService.importNdjson(new ByteArrayInputStream(IntStream.rangeClosed(1, 1200)
+				.mapToObj(i -> "{\"name\":\"Student " + i + "\"}")
+				.collect(Collectors.joining("\n"))
+				.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void noInMemoryUserUnderThisProfileEither() {
+		// The profile's own spring.autoconfigure.exclude replaces the main one, which leaves this out
+		assertThat(context.getBeanNamesForType(UserDetailsService.class)).isEmpty();
+	}
+
+	@Test
+	void readsTheSameRowsAsJpaInIdOrder() {
+		List<Student> all = reactiveStudentService.getAllStudents().collectList().block();
+		List<Student> page = reactiveStudentService.getStudentsAfter(all.get(99).getId(), 50).collectList().block();
+
+		assertThat(all).extracting(Student::getId)
+				.containsExactlyElementsOf(studentRepository.findAll().stream().map(Student::getId).sorted().toList());
+		assertThat(page).extracting(Student::getId).containsExactlyElementsOf(all.subList(100, 150).stream().map(Student::getId).toList());
+	}
+
+	@Test
+	void rowsAreOnlyReadAsFastAsTheSubscriberAsks() {
+		AtomicLong requested = new AtomicLong();
+
+		List<Student> first = reactiveStudentService.getAllStudents()
+				.doOnRequest(requested::addAndGet)
+				.limitRate(10)
+				.take(25, true)
+				.collectList()
+				.block();
+
+		assertThat(first).hasSize(25);
+		// Demand goes upstream in small batches, never as an unbounded request for the whole table
+		assertThat(requested.get()).isLessThan(100);
+	}
+
+	@Test
+	void writesUseTheSharedSequencesAndAreVisibleToJpa() {
+		Student student = new Student();
+		student.setName("Reactive Riya");
+		student.setCourse("Streams");
+
+		Student saved = reactiveStudentService.createStudent(student).block();
+		Student imported = studentRepository.saveAndFlush(newStudent("Jpa Jay"));
+
+		assertThat(saved.getId()).isNotNull();
+		assertThat(studentRepository.findById(saved.getId())).get().extracting(Student::getName).isEqualTo("Reactive Riya");
+		assertThat(imported.getId()).isNotEqualTo(saved.getId());
+
+		saved.setCourse("Backpressure");
+		Student updated = reactiveStudentService.updateStudent(saved.getId(), saved).block();
+		assertThat(updated.getVersion()).isEqualTo(1L);
+		reactiveStudentService.deleteStudent(imported.getId()).block();
+
+		assertThat(studentRepository.findById(saved.getId())).get().extracting(Student::getCourse).isEqualTo("Backpressure");
+		assertThat(studentRepository.findById(imported.getId())).isEmpty();
+
+		assertThatThrownBy(() -> reactiveStudentService.updateStudent(imported.getId(), saved).block())
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+	}
+
+	@Test
+	void booksInsertedHereStartAtVersionZeroLikeJpasDo() {
+		Book book = new Book();
+		book.setTitle("Reactive Streams");
+		book.setAuthor("Riya");
+
+		assertThat(reactiveBookService.saveBook(book).block().getVersion()).isEqualTo(0L);
+	}
+
+	private static Student newStudent(String name) {
+		Student student = new Student();
+		student.setName(name);
+		return student;
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import com.example.my_spring_boot_app.config.ChangeFeedProperties;
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentChange.Type;
+
+import reactor.core.publisher.BaseSubscriber;
+
+class StudentChangeFeedTests {
+
+	@Test
+	void resumesAfterTheLastOffsetAndCarriesOnLive() throws Exception {
+		StudentChangeFeed feed = new StudentChangeFeed(properties(100, 16));
+		StudentChange first = feed.append(Type.CREATED, 1L, null);
+		feed.append(Type.UPDATED, 1L, null);
+		feed.append(Type.CREATED, 2L, null);
+
+		CompletableFuture<List<StudentChange>> received = feed.changes(first.offset()).take(3).collectList().toFuture();
+		feed.append(Type.DELETED, 1L, null);
+
+		assertThat(received.get(5, TimeUnit.SECONDS))
+				.extracting(StudentChange::type, StudentChange::id)
+				.containsExactly(
+						tuple(Type.UPDATED, 1L),
+						tuple(Type.CREATED, 2L),
+						tuple(Type.DELETED, 1L));
+		assertThat(received.get()).extracting(StudentChange::offset)
+				.containsExactly(first.offset() + 1, first.offset() + 2, first.offset() + 3);
+	}
+
+	@Test
+	void anOffsetNoLongerInTheHistoryGetsAReset() throws Exception {
+		StudentChangeFeed feed = new StudentChangeFeed(properties(2, 16));
+		StudentChange first = feed.append(Type.CREATED, 1L, null);
+		feed.append(Type.CREATED, 2L, null);
+		feed.append(Type.CREATED, 3L, null);
+		StudentChange latest = feed.append(Type.CREATED, 4L, null);
+
+		StudentChange reset = feed.changes(first.offset()).blockFirst(Duration.ofSeconds(5));
+
+		assertThat(reset.type()).isEqualTo(Type.RESET);
+		// Resuming from the reset picks up what comes after it
+		assertThat(reset.offset()).isEqualTo(latest.offset());
+	}
+
+	@Test
+	void aSubscriberThatFallsBehindIsDisconnectedWithoutHoldingUpOthers() throws Exception {
+		StudentChangeFeed feed = new StudentChangeFeed(properties(100, 8));
+		List<StudentChange> slowReceived = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> slowDone = new CompletableFuture<>();
+		Stalled slow = new Stalled(slowReceived, slowDone);
+		feed.changes(null).subscribe(slow);
+		CompletableFuture<List<StudentChange>> fast = feed.changes(null).take(20).collectList().toFuture();
+
+		for (long id = 1; id <= 20; id++) {
+			feed.append(Type.CREATED, id, null);
+		}
+
+		assertThat(fast.get(5, TimeUnit.SECONDS)).hasSize(20);
+		assertThat(feed.getSubscriberCount()).isZero();
+		// What was buffered still goes out, then the stream ends
+		slow.request(Long.MAX_VALUE);
+		slowDone.get(5, TimeUnit.SECONDS);
+		assertThat(slowReceived).extracting(StudentChange::id).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+	}
+
+	private static ChangeFeedProperties properties(int history, int subscriberBuffer) {
+		ChangeFeedProperties properties = new ChangeFeedProperties();
+		properties.setHistory(history);
+		properties.setSubscriberBuffer(subscriberBuffer);
+		return properties;
+	}
+
+	// Subscribes without requesting anything, like a client that has stopped reading
+	private static final class Stalled extends BaseSubscriber<StudentChange> {
+
+		private final List<StudentChange> received;
+		private final CompletableFuture<Void> done;
+
+		Stalled(List<StudentChange> received, CompletableFuture<Void> done) {
+			this.received = received;
+			this.done = done;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+		}
+
+		@Override
+		protected void hookOnNext(StudentChange change) {
+			received.add(change);
+		}
+
+		@Override
+		protected void hookOnComplete() {
+			done.complete(null);
+		}
+	}
+}
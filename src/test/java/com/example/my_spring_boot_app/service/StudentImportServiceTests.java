@@ -0,0 +1,90 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.my_spring_boot_app.dto.BulkImportResult;
+import com.example.my_spring_boot_app.dto.BulkImportResult.RowError;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+@SpringBootTest
+class StudentImportServiceTests {
+
+	@Autowired
+	private StudentImportService studentImportService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@BeforeEach
+	void clearStudents() {
+		studentRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void ndjsonRejectsBadLinesAndKeepsTheRest() throws IOException {
+		BulkImportResult result = studentImportService.importNdjson(body("""
+				{"name":"Asha","email":"asha@example.com"}
+				{"name":"Ravi","email":"ravi@example.com"
+				{"email":"no-name@example.com"}
+
+				{"name":"Meera","course":"Physics"}
+				"""));
+
+		assertThat(result.getReceived()).isEqualTo(4);
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(2);
+		assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(2, 3);
+		assertThat(studentRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void csvHonoursHeaderOrderAndQuoting() throws IOException {
+		BulkImportResult result = studentImportService.importCsv(body("""
+				email,name,course
+				a@example.com,"Doe, Jane","Maths"
+				b@example.com,John,"Computer ""Science\"""
+				c@example.com,too,many,columns
+				"""));
+
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(4);
+		assertThat(studentRepository.findAll())
+				.extracting("name", "course")
+				.containsExactlyInAnyOrder(
+						tuple("Doe, Jane", "Maths"),
+						tuple("John", "Computer \"Science\""));
+	}
+
+	@Test
+	void databaseRejectionOnlyFailsTheOffendingRow() throws IOException {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 1; i <= 1200; i++) {
+			// Row 700 overflows the VARCHAR(255) column and fails at flush time, inside the second chunk
+			String name = i == 700 ? "x".repeat(300) : "Student " + i;
+			json.append(i > 1 ? "," : "").append("{\"name\":\"").append(name).append("\"}");
+		}
+		json.append("]");
+
+		BulkImportResult result = studentImportService.importJson(body(json.toString()));
+
+		assertThat(result.getReceived()).isEqualTo(1200);
+		assertThat(result.getImported()).isEqualTo(1199);
+		assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(700);
+		assertThat(studentRepository.count()).isEqualTo(1199);
+	}
+
+	private static InputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.my_spring_boot_app.dto.BulkImportResult;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+/**
+ * Rows/sec of the bulk import against the one-save-per-request path used by POST /api/students.
+ * Run with {@code ./mvnw test -Pbenchmark}; the row count can be changed with -Dbench.rows.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class StudentImportThroughputTests {
+
+	private static final int ROWS = Integer.getInteger("bench.rows", 20_000);
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentImportService studentImportService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@BeforeEach
+	void clearStudents() {
+		studentRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void bulkImportVersusPerRowInserts() throws IOException {
+		// Warm up both paths so the first measurement doesn't pay for class loading and JIT
+		perRow(1_000);
+		bulk(1_000);
+		studentRepository.deleteAllInBatch();
+
+		double perRowRate = perRow(ROWS);
+		double bulkRate = bulk(ROWS);
+
+		System.out.printf("student inserts, %d rows: per-row %.0f rows/s, bulk %.0f rows/s (%.1fx)%n",
+				ROWS, perRowRate, bulkRate, bulkRate / perRowRate);
+		assertThat(studentRepository.count()).isEqualTo(2L * ROWS);
+	}
+
+	private double perRow(int rows) {
+		long start = System.nanoTime();
+		for (int i = 0; i < rows; i++) {
+			StudentCreateDto dto = new StudentCreateDto();
+			dto.setName("Per-row " + i);
+			dto.setEmail("per-row-" + i + "@example.com");
+			studentService.createStudent(dto.toEntity());
+		}
+		return rows / ((System.nanoTime() - start) / 1e9);
+	}
+
+	private double bulk(int rows) throws IOException {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < rows; i++) {
+			ndjson.append("{\"name\":\"Bulk ").append(i).append("\",\"email\":\"bulk-").append(i).append("@example.com\"}\n");
+		}
+		byte[] body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+		long start = System.nanoTime();
+		BulkImportResult result = studentImportService.importNdjson(new ByteArrayInputStream(body));
+		double rate = rows / ((System.nanoTime() - start) / 1e9);
+		assertThat(result.getImported()).isEqualTo(rows);
+		return rate;
+	}
+}
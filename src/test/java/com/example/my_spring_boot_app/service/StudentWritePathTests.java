@@ -0,0 +1,135 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.my_spring_boot_app.dto.StudentChange;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.model.Student;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RecordApplicationEvents
+class StudentWritePathTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.deleteAllInBatch();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void updateIsOneStatementWhereMergeWasTwo() {
+		StudentDto saved = studentService.createStudent(student("Asha", "111"));
+
+		// The old write path: save() on a detached entity merges, reading the row before updating it
+		Student detached = student("Asha", "222");
+		detached.setId(saved.id());
+		detached.setVersion(saved.version());
+		statistics.clear();
+		studentRepository.save(detached);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+		Student update = student("Asha", "333");
+		update.setVersion(saved.version() + 1);
+		statistics.clear();
+		StudentDto updated = studentService.updateStudent(saved.id(), update);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(updated.version()).isEqualTo(saved.version() + 2);
+
+		// Without an expected version the new one is read back: one more, single-column, statement
+		statistics.clear();
+		updated = studentService.updateStudent(saved.id(), student("Asha", "444"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(updated.version()).isEqualTo(saved.version() + 3);
+
+		Student reloaded = studentRepository.findById(saved.id()).orElseThrow();
+		assertThat(reloaded.getPhone()).isEqualTo("444");
+		assertThat(reloaded.getVersion()).isEqualTo(saved.version() + 3);
+	}
+
+	@Test
+	void patchWritesOnlyTheGivenFieldsInOneStatement() {
+		StudentDto saved = studentService.createStudent(student("Asha", "111"));
+
+		statistics.clear();
+		studentService.patchStudent(saved.id(), Map.of("phone", "999"), saved.version());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		Student reloaded = studentRepository.findById(saved.id()).orElseThrow();
+		assertThat(reloaded.getPhone()).isEqualTo("999");
+		assertThat(reloaded.getName()).isEqualTo("Asha");
+		assertThat(reloaded.getCourse()).isEqualTo("Maths");
+		assertThat(reloaded.getVersion()).isEqualTo(saved.version() + 1);
+	}
+
+	@Test
+	void staleVersionIsRejectedAndMissingRowIsNotFound() {
+		StudentDto saved = studentService.createStudent(student("Asha", "111"));
+		studentService.patchStudent(saved.id(), Map.of("phone", "222"), saved.version());
+
+		assertThatThrownBy(() -> studentService.patchStudent(saved.id(), Map.of("phone", "333"), saved.version()))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+		assertThat(studentRepository.findById(saved.id()).orElseThrow().getPhone()).isEqualTo("222");
+
+		assertThatThrownBy(() -> studentService.patchStudent(saved.id() + 1000, Map.of("phone", "333"), null))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+	}
+
+	@Test
+	void deleteIsOneStatement() {
+		StudentDto saved = studentService.createStudent(student("Asha", "111"));
+
+		statistics.clear();
+		studentService.deleteStudent(saved.id(), null);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(studentRepository.existsById(saved.id())).isFalse();
+		assertThat(events.stream(StudentChangedEvent.class))
+				.filteredOn(event -> event.type() == StudentChange.Type.DELETED)
+				.extracting(StudentChangedEvent::id)
+				.containsExactly(saved.id());
+
+		// Nothing to delete the second time, so nothing for the change feed either
+		studentService.deleteStudent(saved.id(), null);
+		assertThat(events.stream(StudentChangedEvent.class)).filteredOn(event -> event.type() == StudentChange.Type.DELETED).hasSize(1);
+	}
+
+	private static Student student(String name, String phone) {
+		Student student = new Student();
+		student.setName(name);
+		student.setPhone(phone);
+		student.setCourse("Maths");
+		return student;
+	}
+}
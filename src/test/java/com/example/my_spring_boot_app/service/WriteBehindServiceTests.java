@@ -0,0 +1,138 @@
+package com.example.my_spring_boot_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.my_spring_boot_app.MySpringBootAppApplication;
+import com.example.my_spring_boot_app.dto.StudentCreateDto;
+import com.example.my_spring_boot_app.dto.StudentDto;
+import com.example.my_spring_boot_app.repository.StudentRepository;
+
+// Filters off for the one request through the controller: the login in front of it doesn't matter here
+@SpringBootTest(properties = {"write-behind.enabled=true", "write-behind.max-delay=50ms"})
+@AutoConfigureMockMvc(addFilters = false)
+class WriteBehindServiceTests {
+
+	@Autowired
+	private WriteBehindService writeBehindService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void clearStudents() {
+		studentRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void postAnswersOnceTheBatchHasCommitted() throws Exception {
+		MvcResult queued = mockMvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Queued\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(queued))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Queued"))
+				.andExpect(jsonPath("$.id").isNumber());
+	}
+
+	@Test
+	void rowsAreCommittedInSubmissionOrder() throws Exception {
+		List<CompletableFuture<StudentDto>> futures = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			futures.add(writeBehindService.createStudent(student("Student " + i)));
+		}
+
+		long previousId = 0;
+		for (int i = 0; i < futures.size(); i++) {
+			StudentDto saved = futures.get(i).get(5, TimeUnit.SECONDS);
+			assertThat(saved.name()).isEqualTo("Student " + i);
+			assertThat(saved.id()).isGreaterThan(previousId);
+			previousId = saved.id();
+		}
+		assertThat(studentRepository.count()).isEqualTo(120);
+		// Completed means committed: the row is there for a plain read straight away
+		assertThat(studentService.getStudentById(previousId).name()).isEqualTo("Student 119");
+	}
+
+	@Test
+	void aRejectedRowOnlyFailsItsOwnCreate() throws Exception {
+		List<CompletableFuture<StudentDto>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			// Longer than the column: the database refuses it, and with it the whole first attempt at the batch
+			futures.add(writeBehindService.createStudent(student(i == 4 ? "x".repeat(300) : "Student " + i)));
+		}
+
+		assertThatThrownBy(() -> futures.get(4).get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+		for (int i = 0; i < 10; i++) {
+			if (i != 4) {
+				assertThat(futures.get(i).get(5, TimeUnit.SECONDS).name()).isEqualTo("Student " + i);
+			}
+		}
+		assertThat(studentRepository.count()).isEqualTo(9);
+	}
+
+	@Test
+	void queuedRowsAreCommittedOnShutdown() throws Exception {
+		String url = "jdbc:h2:mem:writebehind;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		List<CompletableFuture<StudentDto>> futures = new ArrayList<>();
+		// Batches that would wait an hour to fill up: only the shutdown gets them written
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(MySpringBootAppApplication.class).run(
+				"--spring.main.web-application-type=none",
+				"--spring.datasource.url=" + url,
+				"--spring.jpa.hibernate.ddl-auto=update",
+				"--write-behind.enabled=true",
+				"--write-behind.max-delay=1h")) {
+			WriteBehindService service = app.getBean(WriteBehindService.class);
+			for (int i = 0; i < 5; i++) {
+				futures.add(service.createStudent(student("Student " + i)));
+			}
+			assertThat(futures).noneMatch(CompletableFuture::isDone);
+		}
+
+		assertThat(futures).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				ResultSet count = connection.createStatement().executeQuery("SELECT COUNT(*) FROM students")) {
+			count.next();
+			assertThat(count.getInt(1)).isEqualTo(5);
+		}
+	}
+
+	private static StudentCreateDto student(String name) {
+		StudentCreateDto student = new StudentCreateDto();
+		student.setName(name);
+		student.setCourse("Write-behind");
+		return student;
+	}
+}
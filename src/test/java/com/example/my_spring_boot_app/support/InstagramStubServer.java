@@ -0,0 +1,120 @@
+package com.example.my_spring_boot_app.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.ClassPathResource;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for instagram.com's web_profile_info endpoint, built on the JDK's HTTP server.
+ * It serves the recorded payload in {@code instagram/profile.json} for any username, returns 404
+ * for "missing", answers gzip-compressed when asked to, and can be told to slow down or fail a share of requests while a test runs.
+ */
+public class InstagramStubServer implements AutoCloseable {
+
+	public static final String PATH = "/api/v1/users/web_profile_info/";
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final byte[] profile;
+	private final byte[] gzippedProfile;
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private volatile Duration latency = Duration.ZERO;
+	private volatile double errorRate;
+	private volatile int errorStatus = 503;
+
+	public InstagramStubServer() {
+		this(0);
+	}
+
+	public InstagramStubServer(int port) {
+		try {
+			profile = new ClassPathResource("instagram/profile.json").getContentAsByteArray();
+			ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+				gzip.write(profile);
+			}
+			gzippedProfile = gzipped.toByteArray();
+			server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		server.createContext(PATH, this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+	}
+
+	public InstagramStubServer latency(Duration latency) {
+		this.latency = latency;
+		return this;
+	}
+
+	// Share of requests (0..1) answered with errorStatus instead of the profile
+	public InstagramStubServer errorRate(double errorRate, int errorStatus) {
+		this.errorRate = errorRate;
+		this.errorStatus = errorStatus;
+		return this;
+	}
+
+	public byte[] profile() {
+		return profile.clone();
+	}
+
+	public int requestCount() {
+		return requests.get();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		try (exchange) {
+			if (!latency.isZero()) {
+				Thread.sleep(latency);
+			}
+			String query = exchange.getRequestURI().getQuery();
+			if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+				exchange.sendResponseHeaders(errorStatus, -1);
+			} else if (query != null && query.endsWith("username=missing")) {
+				exchange.sendResponseHeaders(404, -1);
+			} else {
+				String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+				boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+				byte[] payload = gzip ? gzippedProfile : profile;
+				exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+				if (gzip) {
+					exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+				}
+				exchange.sendResponseHeaders(200, payload.length);
+				try (OutputStream body = exchange.getResponseBody()) {
+					body.write(payload);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			// Client gave up (e.g. its timeout fired) while we were still answering
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}